@@ -1,5 +1,7 @@
 package Client;
 
+import Logging.EventLog;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
@@ -20,22 +22,51 @@ public class TicTacToeClient extends JFrame implements Runnable {
     private JTextArea displayArea; //JTextarea to display output
     private JPanel boardPanel; //panel for tic-tac-toe board
     private JPanel containerPanel; //panel to hold board
+    private JButton hintButton; //asks the server for the best move
     private Square[][] board; //tic-tac-toe board
     private Square currentSquare; //current square
+    private volatile Square pendingSquare; //our move drawn on the board before the server has confirmed it, null if none
     private Socket connection; //creates a TCP connection to the server
     private Scanner input; //input from server
     private Formatter output; //output to Server
     private String ticTacToeHost; //host name for Server
+    private int ticTacToePort = 12345; //port the server listens on, ServerLauncher's default unless the host says "host:port"
     private String myMark; //this clients Mark
+    private String hello; //first line to the server, "Play alice" for a new game or "Resume 12 X alice" to go back to a parked one
     private boolean myTurn; //determines which client's turn it is
+    private volatile boolean gameFinished; //the game has been won or tied, so the server hanging up is expected
+    private long lastHintMillis; //when we last asked for a hint, only touched on the event-dispatch thread
+    private static final long HINT_INTERVAL_MILLIS = 500; //the server answers two hints a second
     private final String X_MARK = "X"; //mark for first client
     private final String O_MARK = "O"; //mark for second client
+    private static final EventLog LOG = EventLog.get(); //events go to the log file in the background, not the console
 
 
-    //set up user-interface and board
+    //set up user-interface and board, and join a new game under a guest name the server picks
     public TicTacToeClient(String host) {
+        this(host, null, "Play");
+    }
 
+    //set up user-interface and board, and join a new game as playerName, the name our rating is kept under
+    public TicTacToeClient(String host, String playerName) {
+        this(host, playerName, "Play");
+    }
+
+    //set up user-interface and board, and go back to seat mark of parked game gameId with the resume token the server
+    //gave us for it, e.g. "12", "X" and "5f0c1e2d3a4b6978"
+    public TicTacToeClient(String host, String playerName, String gameId, String mark, String resumeToken) {
+        this(host, playerName, "Resume " + gameId + " " + mark + " " + resumeToken);
+    }
+
+    private TicTacToeClient(String host, String playerName, String request) {
+
+        hello = playerName != null ? request + " " + playerName : request;
         ticTacToeHost = host; //set name of Server
+        int colon = host.indexOf(':');
+        if (colon > 0 && colon == host.lastIndexOf(':')) { //"192.168.1.5:12346", a server started with port=12346
+            ticTacToeHost = host.substring(0, colon);
+            ticTacToePort = Integer.parseInt(host.substring(colon + 1));
+        }
         displayArea = new JTextArea(4, 30); //set up JTextArea
         displayArea.setEditable(false);
         add(new JScrollPane(displayArea), BorderLayout.SOUTH);
@@ -65,6 +96,10 @@ public class TicTacToeClient extends JFrame implements Runnable {
 
         containerPanel = new JPanel(); //set up panel to contain boardPanel
         containerPanel.add(boardPanel, BorderLayout.CENTER); //add board panel
+
+        hintButton = new JButton("Hint"); //the server answers with the best square from its solved table
+        hintButton.addActionListener(event -> requestHint());
+        containerPanel.add(hintButton);
         add(containerPanel, BorderLayout.CENTER); //add container panel
 
         setSize(300, 225);  //set size of window
@@ -79,12 +114,16 @@ public class TicTacToeClient extends JFrame implements Runnable {
         {
             //make connection to server
             //the server address is running on the same machine as the client, so InetAddress.getByName(ticTacHoeHost) is basically localhost/127.0.0.1
-            connection = new Socket(InetAddress.getByName(ticTacToeHost), 12345);
+            connection = new Socket(InetAddress.getByName(ticTacToeHost), ticTacToePort);
 
             //get streams for input and output using our TCP Socket connection
             input = new Scanner(connection.getInputStream());
             output = new Formatter(connection.getOutputStream());
 
+            //the first thing the server hears from us is whether we want a new game or a parked one back
+            output.format("%s\n", hello);
+            output.flush();
+
         } catch (IOException ioException) {
             ioException.printStackTrace();
         }
@@ -99,7 +138,14 @@ public class TicTacToeClient extends JFrame implements Runnable {
     public void run() {
 
         //our server sends us the clients mark here which can either be X or O
+        //if a resume is refused or has to wait for the opponent, that is shown first
         myMark = input.nextLine(); //get player's mark (X or O)
+        while (!myMark.equals(X_MARK) && !myMark.equals(O_MARK)) {
+            displayMessage(myMark + "\n");
+            if (!input.hasNextLine())
+                return; //the server turned us away
+            myMark = input.nextLine();
+        }
 
         SwingUtilities.invokeLater(new Runnable() {
             @Override
@@ -112,14 +158,17 @@ public class TicTacToeClient extends JFrame implements Runnable {
         myTurn = (myMark.equals(X_MARK));
 
         //receive messages sent to client and output them
-        //infinite loop whilst the server and client has a connection, so we'll forever listen to messages from server
-        while (true) {
+        //loop whilst the server and client has a connection, so we'll listen to messages from server until it goes away
+        while (input.hasNextLine()) {
             //this is how we as the client determine what to do, whatever the message the server sends us will allow us to decide what to do
             //we manage the "what to do" in processMessage
-            if (input.hasNextLine())
-                //send that as a parameter to our method processMessage
-                processMessage(input.nextLine());
+            //send that as a parameter to our method processMessage
+            processMessage(input.nextLine());
         }
+        myTurn = false;
+        //the server closes the connection itself once a game is over
+        if (!gameFinished)
+            displayMessage("Disconnected from the server.\n");
 
     }
 
@@ -129,8 +178,12 @@ public class TicTacToeClient extends JFrame implements Runnable {
         if (handleInvalidMove(message)) return;
         if (handleOpponentMove(message)) return;
         if (handleWinMessage(message)) return;
+        if (handleBoardMessage(message)) return;
         if (handleTieMessage(message)) return;
         if (handleOpponentWin(message)) return;
+        if (handleHintMessage(message)) return;
+        if (handleGameIdMessage(message)) return;
+        if (handleResumedMessage(message)) return;
 
         //fallback: display any other message
         displayMessage(message + "\n");
@@ -142,17 +195,20 @@ public class TicTacToeClient extends JFrame implements Runnable {
     public boolean handleValidMove(String message) {
         if (message.equals("Valid move.")) {
             displayMessage("valid move, please wait. \n");
-            //this client listens for server messages @input.hasNextLine, and the board is only updated if the server sends a "Valid Move" message. This acts as a safeguard
-            //against marking the board prematurely
-            setMark(currentSquare, myMark); //set mark in square
+            //our mark was drawn as soon as we clicked, the server has now agreed to it so it is no longer pending
+            confirmPendingMove();
             return true;
         }
         return false;
     }
 
+    //"Slow down, try again" is the server dropping a move sent too soon after the last ones, it is taken back the same way
     public boolean handleInvalidMove(String message){
-        if (message.equals("Invalid move, try again")) {
+        if (message.equals("Invalid move, try again") || message.equals("Slow down, try again")) {
             displayMessage(message + "\n"); //display invalid move
+            LOG.log(EventLog.Level.INFO, "move-rejected", "pending", pendingSquare != null ? 1 : 0, "reason", message);
+            //the server rejected the move we drew early, so take it back off the board
+            rollBackPendingMove();
             myTurn = true; //still this Clients turn
             return true;
         }
@@ -186,6 +242,7 @@ public class TicTacToeClient extends JFrame implements Runnable {
                 int column = location % 3; //calculate column
 
                 //update our clients board with the user's move.
+                confirmPendingMove();
                 setMark(board[row][column], (myMark.equals(X_MARK) ? X_MARK : O_MARK));
 
                 displayMessage("Congratulations you have won!" + "\n");
@@ -198,16 +255,23 @@ public class TicTacToeClient extends JFrame implements Runnable {
         return false;
     }
 
+    //the server sends its whole board when the game ends or is resumed, e.g. "Board XOXOOXX-O" with '-' for an empty square
+    //we copy it onto our board, so whatever we drew early or missed, we end up showing exactly what the server has
+    public boolean handleBoardMessage(String message){
+        if(message.startsWith("Board ") && message.length() == 15){
+            confirmPendingMove();
+            for (int location = 0; location < 9; location++) {
+                char square = message.charAt(6 + location);
+                setMark(board[location / 3][location % 3], square == '-' ? " " : String.valueOf(square));
+            }
+            return true;
+        }
+        return false;
+    }
+
     public boolean handleTieMessage(String message){
         if(message.contains("tie")){
-
-            int[] emptyPos = getFirstEmptySquarePosition();
-            int row = emptyPos[0];
-            int column = emptyPos[1];
-
-            //update our clients board with the user's move.
-            setMark(board[row][column], (myMark.equals(X_MARK) ? O_MARK : X_MARK));
-
+            //the final board has already arrived in a Board message, so there is nothing left to guess
             displayMessage(message + "\n");
             myTurn = false;
 
@@ -222,7 +286,7 @@ public class TicTacToeClient extends JFrame implements Runnable {
     {
         if(message.startsWith("Opponent won"))
         {
-            System.out.println("Client received opponent win notification");
+            LOG.log(EventLog.Level.INFO, "opponent-won");
             String[] parts = message.split(" ");
             int location = Integer.parseInt(parts[2]);
             int row = location / 3; //calculate row
@@ -240,7 +304,48 @@ public class TicTacToeClient extends JFrame implements Runnable {
         return false;
     }
 
+    public boolean handleHintMessage(String message)
+    {
+        if (message.startsWith("Hint ")) {
+            String square = message.substring(5);
+            if (square.equals("none"))
+                displayMessage("No hint, it's not your turn.\n");
+            else if (square.equals("later"))
+                displayMessage("Too many hints, wait a moment.\n"); //the server limits how often we can ask
+            else
+                displayMessage("Hint: try square " + square + "\n");
+            return true;
+        }
+        return false;
+    }
+
+    //"Game 12 5f0c1e2d3a4b6978": the game id and our resume token, to give ClientOneLauncher / ClientTwoLauncher if we
+    //lose the connection and want to carry on
+    public boolean handleGameIdMessage(String message)
+    {
+        if (message.startsWith("Game ")) {
+            final String[] parts = message.split(" ");
+            final String resumeToken = parts.length > 2 ? parts[2] : "";
+            SwingUtilities.invokeLater(() -> idField.setText("You are player \"" + myMark + "\" in game " + parts[1]));
+            displayMessage("To resume this game if you are disconnected: " + parts[1] + " " + myMark + " " + resumeToken + "\n");
+            return true;
+        }
+        return false;
+    }
+
+    //back in a parked game, the Board message before this has already put the marks back
+    public boolean handleResumedMessage(String message)
+    {
+        if (message.startsWith("Resumed")) {
+            myTurn = message.equals("Resumed, your move.");
+            displayMessage(myTurn ? "Game resumed. Your move.\n" : "Game resumed, please wait.\n");
+            return true;
+        }
+        return false;
+    }
+
     public void handleGameOver() {
+        gameFinished = true;
         // Delay on a background thread to avoid freezing UI
         new Thread(() -> {
             try {
@@ -288,21 +393,57 @@ public class TicTacToeClient extends JFrame implements Runnable {
         currentSquare = square; //set current square to argument
     }
 
+    // === Optimistic Moves ===
+
+    //the server accepted our move, draw it as a normal mark
+    private void confirmPendingMove() {
+        final Square square = pendingSquare;
+        pendingSquare = null;
+        if (square != null)
+            SwingUtilities.invokeLater(() -> square.setPending(false));
+    }
+
+    //the server rejected our move, clear the square we drew it in
+    private void rollBackPendingMove() {
+        final Square square = pendingSquare;
+        pendingSquare = null;
+        if (square != null)
+            SwingUtilities.invokeLater(() -> {
+                square.setPending(false);
+                square.setMark(" ");
+            });
+    }
+
+
+    //only asked on our turn, the server has nothing to suggest otherwise.
+    //Clicks closer together than HINT_INTERVAL_MILLIS are ignored, the server would only answer "later" to them
+    private void requestHint() {
+        long now = System.currentTimeMillis();
+        if (myTurn && now - lastHintMillis >= HINT_INTERVAL_MILLIS) {
+            lastHintMillis = now;
+            output.format("hint\n");
+            output.flush();
+        }
+    }
 
     // === Board Click Logic ===
 
     //when its our turn and our thread isn't locked, when we click a square we sent that location to the server for processing
-    //the server will then send us back a message saying if it was valid, false etc. if valid our processMessage method updates our board with the square we clicked
+    //we don't wait for the server to draw our mark: it goes on the board straight away as pending, so the click feels instant.
+    //the server then tells us if it was valid, and processMessage either confirms the pending mark or takes it back off
     public void sendClickedSquare(int location) {
         //this myTurn here is what stops the client that is waiting from sending moves to the server
         if (myTurn) {
-            System.out.println("is it clicking");
-            System.out.println("the location send to server " + location);
-            if(myTurn)
-                System.out.println("its my turn too");
+            if (!currentSquare.getMark().equals(" ")) {
+                displayMessage("That square is taken, pick another.\n"); //the server would only reject it
+                return;
+            }
+            LOG.log(EventLog.Level.INFO, "click-sent", "location", location);
 
-            if(connection != null && connection.isConnected() && !connection.isClosed())
-                System.out.println("ok connection not closed");
+            //this runs on the event-dispatch thread (it's called from the mouse listener) so we can draw the mark directly
+            pendingSquare = currentSquare;
+            currentSquare.setPending(true);
+            currentSquare.setMark(myMark);
 
             output.format("%d\n", location); //send location to server
             output.flush();
@@ -316,6 +457,7 @@ public class TicTacToeClient extends JFrame implements Runnable {
     //private inner class for the square on the board
     private class Square extends JPanel {
         private String mark; //mark to be drawn in this square
+        private boolean pending; //our mark, drawn before the server has accepted it
         private int location; //location of square
 
         public Square(String squareMark, int squareLocation) {
@@ -328,7 +470,6 @@ public class TicTacToeClient extends JFrame implements Runnable {
                 @Override
                 public void mouseReleased(MouseEvent e) {
                     setCurrentSquare(Square.this); //set Current square
-                    System.out.println("CLICKED! And i am player " + myMark);
                     // Send clicked location to server
                     sendClickedSquare(getSquaredLocation());
                 }
@@ -352,6 +493,12 @@ public class TicTacToeClient extends JFrame implements Runnable {
             repaint();
         }
 
+        //a pending mark is drawn in grey until the server confirms it
+        public void setPending(boolean isPending) {
+            pending = isPending;
+            repaint();
+        }
+
         //get mark for square
         public String getMark() {
             return mark;
@@ -368,24 +515,9 @@ public class TicTacToeClient extends JFrame implements Runnable {
 
             //this draws the square right here and we put our mark in the square
             g.drawRect(0, 0, 29, 29);
+            g.setColor(pending ? Color.GRAY : getForeground());
             g.drawString(mark, 11, 20); //draw mark
         }
     }
 
-    public int[] getFirstEmptySquarePosition() {
-        for (int row = 0; row < board.length; row++) {
-            for (int col = 0; col < board[row].length; col++) {
-                if (board[row][col].getMark().equals(" ")) {
-                    return new int[]{row, col};
-                }
-            }
-        }
-        return new int[]{-1, -1}; // no empty square found
-    }
-
-
 }
-
-
-
-
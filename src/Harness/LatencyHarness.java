@@ -0,0 +1,243 @@
+package Harness;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Plays games against a running server over real sockets, both clients per game, and measures how long each move takes
+//from the click (the mover sending its square) to the opponent being told about it ("Opponent moved", "Opponent won" or
+//"It's a tie game"). That is the delay a player actually sees, through the server's parsing, locking, formatting and TCP.
+//
+//concurrentGames games are in play at once, each on its own thread, until totalGames have been played.
+//With a target rate, moves are spread evenly at that many per second across all games and each latency is measured
+//from when the move was due rather than when it was sent, so a server stall still counts against every move it held up.
+public class LatencyHarness {
+
+    private static final String[] MARKS = {"X", "O"};
+
+    private final String host;
+    private final int port;
+    private final TrafficScript traffic;
+    private final int concurrentGames;
+    private final long totalGames;
+    private final double movesPerSecond; //across all games, 0 to send every move as soon as the last one was answered
+    private final double disconnectFraction; //games in which a player walks away part way through, which parks the game
+    private final Lock seatingLock = new ReentrantLock(); //connects one game's two clients back to back so the server pairs them together
+    private final AtomicLong nextGame = new AtomicLong();
+    private final AtomicLong disconnectedGames = new AtomicLong();
+    private final AtomicLong failedGames = new AtomicLong();
+
+    public LatencyHarness(String host, int port, TrafficScript traffic, int concurrentGames, long totalGames,
+                          double movesPerSecond, double disconnectFraction)
+    {
+        this.host = host;
+        this.port = port;
+        this.traffic = traffic;
+        this.concurrentGames = concurrentGames;
+        this.totalGames = totalGames;
+        this.movesPerSecond = movesPerSecond;
+        this.disconnectFraction = disconnectFraction;
+    }
+
+    public LatencyReport run() throws InterruptedException
+    {
+        ExecutorService clients = Executors.newFixedThreadPool(concurrentGames);
+        Latencies[] latencies = new Latencies[concurrentGames];
+
+        long gcCollectionsBefore = gcCollections();
+        long gcMillisBefore = gcMillis();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < concurrentGames; i++) {
+            Latencies recorded = latencies[i] = new Latencies();
+            clients.execute(() -> playGames(recorded));
+        }
+        clients.shutdown();
+        clients.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+
+        long duration = System.nanoTime() - start;
+
+        //one sorted array of every latency, for exact percentiles
+        int moves = 0;
+        for (Latencies recorded : latencies)
+            moves += recorded.count;
+        long[] all = new long[moves];
+        int filled = 0;
+        for (Latencies recorded : latencies) {
+            System.arraycopy(recorded.values, 0, all, filled, recorded.count);
+            filled += recorded.count;
+        }
+        Arrays.sort(all);
+
+        long played = Math.min(nextGame.get(), totalGames);
+        return new LatencyReport(traffic.getDescription(), concurrentGames, movesPerSecond, played, disconnectedGames.get(),
+                failedGames.get(), all, duration, gcCollections() - gcCollectionsBefore, gcMillis() - gcMillisBefore);
+    }
+
+    //one client thread: keep playing the next game in the script until enough have been played
+    private void playGames(Latencies latencies)
+    {
+        long moveInterval = movesPerSecond > 0 ? (long) (1e9 * concurrentGames / movesPerSecond) : 0;
+        //start each thread at a random point in the interval so the games don't all move at once
+        long nextMoveDue = System.nanoTime() + (moveInterval > 0 ? ThreadLocalRandom.current().nextLong(moveInterval) : 0);
+
+        long index;
+        while ((index = nextGame.getAndIncrement()) < totalGames) {
+            try
+            {
+                nextMoveDue = playGame(traffic.game(index), latencies, moveInterval, nextMoveDue);
+            }
+            catch (IOException | RuntimeException exception)
+            {
+                failedGames.incrementAndGet();
+                System.err.println("Game " + index + " failed: " + exception);
+                nextMoveDue = System.nanoTime();
+            }
+        }
+    }
+
+    //play one game as both clients, returns when the next move after it is due
+    private long playGame(int[] moves, Latencies latencies, long moveInterval, long nextMoveDue) throws IOException
+    {
+        Socket[] sockets = new Socket[2];
+        BufferedReader[] readers = new BufferedReader[2];
+        OutputStream[] writers = new OutputStream[2];
+
+        try
+        {
+            //connect X then O with nobody else in between, so the server's lobby seats them in the same game
+            seatingLock.lock();
+            try
+            {
+                for (int seat = 0; seat < 2; seat++) {
+                    sockets[seat] = new Socket(host, port);
+                    sockets[seat].setTcpNoDelay(true);
+                    readers[seat] = new BufferedReader(new InputStreamReader(sockets[seat].getInputStream(), StandardCharsets.UTF_8));
+                    writers[seat] = sockets[seat].getOutputStream();
+                    send(writers[seat], "Play");
+                    String mark = readers[seat].readLine();
+                    if (!MARKS[seat].equals(mark))
+                        throw new IOException("Expected to be seated as " + MARKS[seat] + " but the server said " + mark);
+                }
+            }
+            finally {
+                seatingLock.unlock();
+            }
+            readUntil(readers[0], "Other player connected");
+            //connecting isn't part of any click, so a move that fell due while we were seated is due now instead
+            nextMoveDue = Math.max(nextMoveDue, System.nanoTime());
+
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int disconnectAt = random.nextDouble() < disconnectFraction ? random.nextInt(moves.length) : -1;
+
+            for (int i = 0; i < moves.length; i++) {
+                int mover = i % 2;
+                int opponent = 1 - mover;
+
+                //wait until this move is due, or go straight away if the harness isn't pacing moves
+                long sent = System.nanoTime();
+                if (moveInterval > 0) {
+                    while (sent < nextMoveDue) {
+                        TimeUnit.NANOSECONDS.sleep(nextMoveDue - sent);
+                        sent = System.nanoTime();
+                    }
+                    sent = nextMoveDue; //measured from when it was due, so time spent waiting on a slow server still counts
+                    nextMoveDue += moveInterval;
+                }
+
+                if (i == disconnectAt) {
+                    //the player walks away, the server parks the game and sends the opponent away too
+                    sockets[mover].close();
+                    readUntil(readers[opponent], "Opponent disconnected");
+                    disconnectedGames.incrementAndGet();
+                    return nextMoveDue;
+                }
+
+                send(writers[mover], Integer.toString(moves[i]));
+                String notification = readUntil(readers[opponent], "Opponent moved", "Opponent won", "It's a tie game");
+                latencies.add(System.nanoTime() - sent);
+                if (notification.equals("Opponent moved"))
+                    readers[opponent].readLine(); //the location follows on its own line
+
+                String reply = readUntil(readers[mover], "Valid move.", "Invalid move", "Congratulations you have won", "Its a tie!");
+                if (reply.startsWith("Invalid move"))
+                    throw new IOException("Server rejected square " + moves[i]);
+                if (!reply.startsWith("Valid move."))
+                    return nextMoveDue; //won or drawn
+            }
+            throw new IOException("Ran out of moves before the server ended the game " + Arrays.toString(moves));
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted", exception);
+        }
+        finally {
+            for (Socket socket : sockets)
+                if (socket != null)
+                    socket.close();
+        }
+    }
+
+    private static void send(OutputStream output, String line) throws IOException
+    {
+        output.write((line + "\n").getBytes(StandardCharsets.UTF_8));
+        output.flush();
+    }
+
+    //read lines until one starts with any of the expected prefixes, skipping the greetings and status lines in between
+    private static String readUntil(BufferedReader reader, String... expected) throws IOException
+    {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            for (String prefix : expected)
+                if (line.startsWith(prefix)) return line;
+        }
+        throw new IOException("Server closed the connection while waiting for " + Arrays.toString(expected));
+    }
+
+    // === GC Activity ===
+    // Summed over every collector in this JVM, which runs the harness clients as well as the server
+
+    private static long gcCollections()
+    {
+        long collections = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            collections += Math.max(0, collector.getCollectionCount());
+        return collections;
+    }
+
+    private static long gcMillis()
+    {
+        long millis = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans())
+            millis += Math.max(0, collector.getCollectionTime());
+        return millis;
+    }
+
+    //one client thread's latencies, a growable array of nanoseconds
+    private static final class Latencies {
+        private long[] values = new long[1024];
+        private int count;
+
+        private void add(long latency)
+        {
+            if (count == values.length)
+                values = Arrays.copyOf(values, count * 2);
+            values[count++] = latency;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package Harness;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+//The results of one harness run: click to opponent notification latency, throughput and GC activity.
+//The server runs in the same JVM as the harness clients, so the GC figures are the whole process's, clients included:
+//they catch a change that makes GC worse, but aren't the server's GC cost on its own.
+//Written out as JSON so runs can be compared by a script, and checked against a baseline so a regression fails the build.
+public class LatencyReport {
+
+    private final String traffic;
+    private final int concurrentGames;
+    private final double targetMovesPerSecond;
+    private final long games;
+    private final long disconnectedGames;
+    private final long failedGames;
+    private final long[] latencies; //nanoseconds, sorted
+    private final long durationNanos;
+    private final long gcCollections; //whole process, server and harness clients together
+    private final long gcMillis;
+
+    public LatencyReport(String traffic, int concurrentGames, double targetMovesPerSecond, long games, long disconnectedGames,
+                         long failedGames, long[] sortedLatencies, long durationNanos, long gcCollections, long gcMillis)
+    {
+        this.traffic = traffic;
+        this.concurrentGames = concurrentGames;
+        this.targetMovesPerSecond = targetMovesPerSecond;
+        this.games = games;
+        this.disconnectedGames = disconnectedGames;
+        this.failedGames = failedGames;
+        this.latencies = sortedLatencies;
+        this.durationNanos = durationNanos;
+        this.gcCollections = gcCollections;
+        this.gcMillis = gcMillis;
+    }
+
+    //latency at a quantile (0.99 for p99) in microseconds, nearest rank
+    public double percentileMicros(double quantile)
+    {
+        if (latencies.length == 0)
+            return 0;
+        int rank = (int) Math.ceil(quantile * latencies.length);
+        return latencies[Math.max(0, rank - 1)] / 1000.0;
+    }
+
+    public double meanMicros()
+    {
+        if (latencies.length == 0)
+            return 0;
+        double total = 0;
+        for (long latency : latencies)
+            total += latency;
+        return total / latencies.length / 1000.0;
+    }
+
+    public long getMoves()
+    {
+        return latencies.length;
+    }
+
+    public double getMovesPerSecond()
+    {
+        return latencies.length / (durationNanos / 1e9);
+    }
+
+    public double getGamesPerSecond()
+    {
+        return games / (durationNanos / 1e9);
+    }
+
+    public long getFailedGames()
+    {
+        return failedGames;
+    }
+
+    // === Baseline ===
+
+    //every way this run is worse than the baseline, empty if it passes. Keys that are missing aren't checked:
+    //  p50.micros, p99.micros, p999.micros   highest acceptable latency at that percentile
+    //  min.moves.per.second                  lowest acceptable throughput
+    //  max.process.gc.millis                 most time acceptable in garbage collection over the run, server and clients together
+    //A game that fails (a dropped connection or a reply we didn't expect) always fails the run
+    public List<String> checkAgainst(Properties baseline)
+    {
+        List<String> violations = new ArrayList<>();
+        if (failedGames > 0)
+            violations.add(failedGames + " games failed");
+
+        checkMaximum(violations, baseline, "p50.micros", percentileMicros(0.50));
+        checkMaximum(violations, baseline, "p99.micros", percentileMicros(0.99));
+        checkMaximum(violations, baseline, "p999.micros", percentileMicros(0.999));
+        checkMaximum(violations, baseline, "max.process.gc.millis", gcMillis);
+
+        String minimum = baseline.getProperty("min.moves.per.second");
+        if (minimum != null && getMovesPerSecond() < Double.parseDouble(minimum))
+            violations.add(String.format("%.0f moves/sec is below the baseline of %s", getMovesPerSecond(), minimum));
+        return violations;
+    }
+
+    private static void checkMaximum(List<String> violations, Properties baseline, String key, double value)
+    {
+        String maximum = baseline.getProperty(key);
+        if (maximum != null && value > Double.parseDouble(maximum))
+            violations.add(String.format("%s is %.1f, over the baseline of %s", key, value, maximum));
+    }
+
+    // === JSON ===
+
+    public String toJson()
+    {
+        StringBuilder json = new StringBuilder(512);
+        json.append("{\n");
+        json.append("  \"traffic\": \"").append(traffic.replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\n");
+        json.append("  \"concurrentGames\": ").append(concurrentGames).append(",\n");
+        json.append("  \"targetMovesPerSecond\": ").append(format(targetMovesPerSecond)).append(",\n");
+        json.append("  \"games\": ").append(games).append(",\n");
+        json.append("  \"disconnectedGames\": ").append(disconnectedGames).append(",\n");
+        json.append("  \"failedGames\": ").append(failedGames).append(",\n");
+        json.append("  \"moves\": ").append(latencies.length).append(",\n");
+        json.append("  \"durationSeconds\": ").append(format(durationNanos / 1e9)).append(",\n");
+        json.append("  \"movesPerSecond\": ").append(format(getMovesPerSecond())).append(",\n");
+        json.append("  \"gamesPerSecond\": ").append(format(getGamesPerSecond())).append(",\n");
+        json.append("  \"latencyMicros\": {");
+        json.append("\"p50\": ").append(format(percentileMicros(0.50)));
+        json.append(", \"p99\": ").append(format(percentileMicros(0.99)));
+        json.append(", \"p999\": ").append(format(percentileMicros(0.999)));
+        json.append(", \"max\": ").append(format(percentileMicros(1.0)));
+        json.append(", \"mean\": ").append(format(meanMicros())).append("},\n");
+        json.append("  \"processGc\": {\"collections\": ").append(gcCollections).append(", \"millis\": ").append(gcMillis).append("}\n");
+        json.append("}\n");
+        return json.toString();
+    }
+
+    private static String format(double value)
+    {
+        return String.format(Locale.ROOT, "%.1f", value);
+    }
+}
@@ -0,0 +1,83 @@
+package Harness;
+
+import Records.GameRecord;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+//The games a harness run plays: either random games, or real games replayed move by move from a record file
+//written by the server or a tournament (see Records.GameRecordWriter), so a run can reproduce recorded traffic.
+public final class TrafficScript {
+
+    private final List<int[]> recordedGames; //null for random games
+    private final String description;
+
+    private TrafficScript(List<int[]> recordedGames, String description)
+    {
+        this.recordedGames = recordedGames;
+        this.description = description;
+    }
+
+    public static TrafficScript random()
+    {
+        return new TrafficScript(null, "random");
+    }
+
+    //every game in a record file, played in order and from the start again once they run out
+    public static TrafficScript fromRecords(Path file) throws IOException
+    {
+        List<int[]> games = new ArrayList<>();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (input.readLong() != GameRecord.MAGIC)
+                throw new IOException(file + " is not a game record file");
+            while (true) {
+                long record;
+                try
+                {
+                    record = input.readLong();
+                }
+                catch (EOFException endOfFile)
+                {
+                    break;
+                }
+                int[] moves = new int[GameRecord.length(record)];
+                for (int i = 0; i < moves.length; i++)
+                    moves[i] = GameRecord.move(record, i);
+                games.add(moves);
+            }
+        }
+        if (games.isEmpty())
+            throw new IOException(file + " has no games in it");
+        return new TrafficScript(games, file.toString());
+    }
+
+    //the moves of game number index, X's first. A random game lists every square in a random order,
+    //the server ends the game as soon as somebody wins so the later squares are never sent
+    public int[] game(long index)
+    {
+        if (recordedGames != null)
+            return recordedGames.get((int) (index % recordedGames.size()));
+
+        int[] squares = {0, 1, 2, 3, 4, 5, 6, 7, 8};
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = squares.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = squares[i];
+            squares[i] = squares[j];
+            squares[j] = swap;
+        }
+        return squares;
+    }
+
+    public String getDescription()
+    {
+        return description;
+    }
+}
@@ -1,24 +1,39 @@
 package Launcher;
 
 import Client.TicTacToeClient;
+import Logging.EventLog;
 
 import javax.swing.*;
+import java.nio.file.Paths;
 
 public class ClientOneLauncher {
 
     public static void main(String[] args)
     {
+        //the server and both clients usually run from the same folder, so each gets its own event log
+        EventLog.configure(Paths.get("client-one-events.log"), EventLog.Level.INFO);
+
         TicTacToeClient application;
 
 
         if(args.length == 0)
         {
-            // Use default localhost if no IP is passed
+            // Use default localhost if no IP is passed, the server gives us a guest name
             application = new TicTacToeClient("127.0.0.1");
         }
+        else if(args.length >= 5)
+        {
+            // Go back to a parked game, e.g. 127.0.0.1 alice 12 X 5f0c1e2d3a4b6978 to take seat X of game 12 again
+            application = new TicTacToeClient(args[0], args[1], args[2], args[3], args[4]);
+        }
+        else if(args.length >= 2)
+        {
+            // Play under a name, e.g. 127.0.0.1 alice, so our rating follows us from game to game
+            application = new TicTacToeClient(args[0], args[1]);
+        }
         else
         {
-            // Use IP argument from command line
+            // Use IP argument from command line, with the port after a colon if the server isn't on 12345, e.g. 127.0.0.1:12346
             application = new TicTacToeClient(args[0]); //use args
         }
 
@@ -0,0 +1,31 @@
+package Launcher;
+
+import Records.GameAnalytics;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class GameAnalyticsLauncher {
+
+    //usage: GameAnalyticsLauncher games.rec [more.rec ...]
+    //prints opening statistics, game length, first move win rate and the most common drawing lines over every file
+    public static void main(String[] args) throws IOException
+    {
+        List<Path> files = new ArrayList<>();
+        for (String arg : args)
+            files.add(Paths.get(arg));
+        if (files.isEmpty())
+            files.add(Paths.get("games.rec")); //the file the server writes by default
+
+        long started = System.nanoTime();
+        GameAnalytics.Totals totals = GameAnalytics.analyze(files);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        System.out.print(totals.report(10));
+        System.out.printf("%nScanned %d games in %.2f s (%.0f games/sec)%n", totals.getGames(), seconds, totals.getGames() / seconds);
+    }
+
+}
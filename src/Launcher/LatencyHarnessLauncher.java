@@ -0,0 +1,83 @@
+package Launcher;
+
+import Harness.LatencyHarness;
+import Harness.LatencyReport;
+import Harness.TrafficScript;
+import Logging.EventLog;
+import Server.GameHost;
+import Server.TickProcessor;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class LatencyHarnessLauncher {
+
+    //usage: LatencyHarnessLauncher [games] [concurrent games] [moves per second, 0 for flat out] [random|record file]
+    //                              [disconnect percent] [report file] [baseline properties] [tick millis, 0 for no ticks]
+    //e.g. LatencyHarnessLauncher 20000 50 2000 games.rec 5 latency-report.json latency-baseline.properties
+    //exits with status 1 if any game failed or the run is worse than the baseline
+    public static void main(String[] args) throws IOException, InterruptedException
+    {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 10000;
+        int concurrentGames = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        double movesPerSecond = args.length > 2 ? Double.parseDouble(args[2]) : 0;
+        String trafficSource = args.length > 3 ? args[3] : "random";
+        double disconnectPercent = args.length > 4 ? Double.parseDouble(args[4]) : 0;
+        String reportFile = args.length > 5 ? args[5] : "latency-report.json";
+        String baselineFile = args.length > 6 && !args[6].equals("-") ? args[6] : null; //"-" for none, to give a tick length
+        int tickMillis = args.length > 7 ? Integer.parseInt(args[7]) : 0;
+
+        //only problems are logged, so the log writer doesn't compete with the games being measured
+        EventLog.configure(Paths.get("harness-events.log"), EventLog.Level.WARN);
+
+        TrafficScript traffic = trafficSource.equalsIgnoreCase("random")
+                ? TrafficScript.random()
+                : TrafficScript.fromRecords(Paths.get(trafficSource));
+
+        //the same server the window runs, without the window, on any free loopback port. Nothing is rated or recorded
+        ExecutorService runGame = Executors.newCachedThreadPool();
+        GameHost host = new GameHost(0, concurrentGames * 2, runGame, message -> { });
+        TickProcessor ticks = tickMillis > 0 ? new TickProcessor(tickMillis) : null;
+        host.setTickProcessor(ticks);
+        Thread hostThread = new Thread(host::execute, "game-host");
+        hostThread.start();
+
+        LatencyReport report;
+        try
+        {
+            LatencyHarness harness = new LatencyHarness("127.0.0.1", host.getPort(), traffic, concurrentGames, games,
+                    movesPerSecond, disconnectPercent / 100);
+            report = harness.run();
+        }
+        finally {
+            host.close();
+            runGame.shutdown();
+            if (ticks != null)
+                ticks.shutdown();
+        }
+
+        String json = report.toJson();
+        Files.write(Paths.get(reportFile), json.getBytes(StandardCharsets.UTF_8));
+        System.out.print(json);
+
+        Properties baseline = new Properties();
+        if (baselineFile != null) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(baselineFile), StandardCharsets.UTF_8)) {
+                baseline.load(reader);
+            }
+        }
+
+        List<String> violations = report.checkAgainst(baseline);
+        for (String violation : violations)
+            System.err.println("FAILED: " + violation);
+        System.exit(violations.isEmpty() ? 0 : 1);
+    }
+
+}
@@ -0,0 +1,23 @@
+package Launcher;
+
+import Solver.PerfectPlayTable;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class PerfectPlayGenerator {
+
+    //usage: PerfectPlayGenerator [table file]
+    //solves every position and writes the table, start the server with -Dtictactoe.perfectplay=<table file> to load it
+    public static void main(String[] args) throws IOException
+    {
+        Path file = Paths.get(args.length > 0 ? args[0] : "perfect-play.bin");
+
+        PerfectPlayTable table = PerfectPlayTable.generate();
+        table.write(file);
+
+        System.out.println("Wrote " + table.size() + " positions to " + file);
+    }
+
+}
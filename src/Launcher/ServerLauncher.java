@@ -1,16 +1,75 @@
 package Launcher;
 
+import Logging.EventLog;
+import Server.ServerConfig;
 import Server.TicTacToeServer;
+import Tournament.LoopbackMatch;
+import Tournament.Strategies;
+import Tournament.Strategy;
 
 import javax.swing.*;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public class ServerLauncher {
 
-    public static void main(String[] args)
+    //usage: ServerLauncher [settings.properties] [key=value ...], see ServerConfig for the settings
+    //e.g. ServerLauncher port=12346 backlog=100 executor=fixed:64 tick.millis=5 warmup.games=5000
+    public static void main(String[] args) throws IOException
     {
-        TicTacToeServer application = new TicTacToeServer();
+        //the server and both clients usually run from the same folder, so each gets its own event log
+        EventLog.configure(Paths.get("server-events.log"), EventLog.Level.INFO);
+        EventLog log = EventLog.get();
+
+        ServerConfig config = ServerConfig.fromArguments(args);
+
+        //play some games before the socket is open, so the first real players don't pay for class loading and JIT warm-up
+        long warmUpStart = System.nanoTime();
+        log.setLevel(EventLog.Level.WARN); //warm-up games aren't worth logging
+        warmUp(config.getWarmUpGames());
+        log.setLevel(EventLog.Level.INFO);
+        long warmUpMillis = (System.nanoTime() - warmUpStart) / 1_000_000;
+        log.log(EventLog.Level.INFO, "warm-up", "games", config.getWarmUpGames(), "millis", warmUpMillis);
+        if (config.isWarmUpOnly()) {
+            System.out.println("Warmed up with " + config.getWarmUpGames() + " games in " + warmUpMillis + "ms");
+            System.exit(0); //a training run for a class data sharing archive, see the README
+        }
+
+        TicTacToeServer application = new TicTacToeServer(config);
         application.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        //how long from starting the JVM to accepting the first player, the number a deploy cares about
+        log.log(EventLog.Level.INFO, "server-started", "port", config.getPort(), "uptimeMillis", ManagementFactory.getRuntimeMXBean().getUptime());
         application.execute();
     }
 
+    //play games over the in-process loopback transport: the same game, parsing, formatting and perfect play table code
+    //real games use, so it is loaded and compiled by the time anyone connects. Nothing is rated or recorded
+    private static void warmUp(int games)
+    {
+        if (games <= 0)
+            return;
+
+        ExecutorService runGame = Executors.newCachedThreadPool();
+        LoopbackMatch match = new LoopbackMatch(runGame, Collections.emptyList());
+        Strategy[] strategies = {Strategies.byName("random"), Strategies.byName("greedy"), Strategies.byName("perfect")};
+        try
+        {
+            for (int i = 0; i < games; i++)
+                match.play(strategies[i % 3], strategies[(i / 3) % 3]);
+        }
+        catch (IOException ioException)
+        {
+            //a broken warm-up would be a broken server, don't open the socket
+            ioException.printStackTrace();
+            System.exit(1);
+        }
+        finally {
+            runGame.shutdown();
+        }
+    }
+
 }
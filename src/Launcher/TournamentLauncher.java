@@ -0,0 +1,55 @@
+package Launcher;
+
+import Records.GameRecordWriter;
+import Tournament.Strategies;
+import Tournament.Strategy;
+import Tournament.TournamentRunner;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TournamentLauncher {
+
+    //usage: TournamentLauncher [roundrobin|swiss] [games per pairing] [strategy,strategy,...] [swiss rounds] [record file]
+    //e.g. TournamentLauncher swiss 10000 random,first,greedy,perfect 3 tournament.rec
+    //a strategy listed twice plays as two entrants, the second named random#2 and so on
+    public static void main(String[] args) throws InterruptedException, IOException
+    {
+        String format = args.length > 0 ? args[0] : "roundrobin";
+        int gamesPerPairing = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        String names = args.length > 2 ? args[2] : "random,first,greedy";
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        String recordFile = args.length > 4 ? args[4] : null;
+
+        List<Strategy> strategies = new ArrayList<>();
+        for (String name : names.split(","))
+            strategies.add(Strategies.byName(name.trim()));
+
+        //the games never touch Swing or the network, everything runs in this JVM on every core
+        TournamentRunner runner = new TournamentRunner(strategies, Runtime.getRuntime().availableProcessors());
+        GameRecordWriter records = null;
+        if (recordFile != null) {
+            //export every game for GameAnalyticsLauncher
+            records = new GameRecordWriter(Paths.get(recordFile));
+            runner.addGameListener(records);
+        }
+
+        try
+        {
+            if (format.equalsIgnoreCase("swiss"))
+                runner.playSwiss(rounds, gamesPerPairing);
+            else
+                runner.playRoundRobin(gamesPerPairing);
+
+            System.out.print(runner.report());
+        }
+        finally {
+            runner.shutdown();
+            if (records != null)
+                records.close();
+        }
+    }
+
+}
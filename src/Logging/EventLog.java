@@ -0,0 +1,307 @@
+package Logging;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+//Levelled, structured event logging that costs next to nothing on the game threads.
+//
+//An event is a name plus up to two numeric fields and one text field, e.g. "move game=3 player=0 location=4".
+//Logging one copies those references into a preallocated Event in a ring buffer (claimed with a compare-and-set, no lock,
+//no string building) and returns. A single background thread formats the events and writes them to a log file, which is
+//rotated once it gets big. If the ring is ever full the event is dropped and counted rather than making a game thread wait.
+//
+//Use EventLog.get() for the process wide log. Launchers may call configure() first to pick the file and level.
+public final class EventLog {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int CAPACITY = 8192; //events waiting to be written, a power of two
+    private static final long MAX_FILE_BYTES = 10 * 1024 * 1024; //rotate after this many bytes
+    private static final int ROTATED_FILES = 5; //events.log.1 to events.log.5 are kept
+    private static final long MIN_IDLE_PARK_NANOS = 1_000_000; //how long the writer first sleeps when there is nothing to write
+    private static final long MAX_IDLE_PARK_NANOS = 100_000_000; //it sleeps twice as long each time it wakes to nothing, up to this
+
+    private static volatile EventLog instance;
+    private static Path configuredFile = Paths.get("events.log");
+    private static Level configuredLevel = Level.INFO;
+
+    private final Event[] ring = new Event[CAPACITY];
+    private final AtomicLong claimed = new AtomicLong(); //next sequence a game thread will claim
+    private volatile long drained; //next sequence the writer will write, slots before it can be reused
+    private final AtomicLong dropped = new AtomicLong(); //events lost because the ring was full
+    private volatile Level threshold;
+    private volatile boolean running = true;
+    private volatile boolean writerParked; //the writer is asleep, the next event logged wakes it instead of waiting out the sleep
+
+    private final Path file;
+    private final Thread writerThread;
+    private Writer writer;
+    private long fileBytes;
+
+    // === Setup ===
+
+    //choose the file and level of the process wide log, must be called before the first get()
+    public static synchronized void configure(Path file, Level level)
+    {
+        configuredFile = file;
+        configuredLevel = level;
+    }
+
+    public static EventLog get()
+    {
+        EventLog log = instance;
+        if (log == null) {
+            synchronized (EventLog.class) {
+                if (instance == null)
+                    instance = new EventLog(configuredFile, configuredLevel);
+                log = instance;
+            }
+        }
+        return log;
+    }
+
+    private EventLog(Path file, Level threshold)
+    {
+        this.file = file;
+        this.threshold = threshold;
+        for (int i = 0; i < CAPACITY; i++)
+            ring[i] = new Event();
+
+        writerThread = new Thread(this::drain, "event-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close)); //write whatever is still in the ring on exit
+    }
+
+    public void setLevel(Level level)
+    {
+        threshold = level;
+    }
+
+    public boolean isEnabled(Level level)
+    {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    // === Logging (called on game threads) ===
+
+    public void log(Level level, String event)
+    {
+        if (isEnabled(level))
+            publish(level, event, null, 0, null, 0, null, null);
+    }
+
+    public void log(Level level, String event, String key, long value)
+    {
+        if (isEnabled(level))
+            publish(level, event, key, value, null, 0, null, null);
+    }
+
+    public void log(Level level, String event, String key1, long value1, String key2, long value2)
+    {
+        if (isEnabled(level))
+            publish(level, event, key1, value1, key2, value2, null, null);
+    }
+
+    public void log(Level level, String event, String key, long value, String textKey, String text)
+    {
+        if (isEnabled(level))
+            publish(level, event, key, value, null, 0, textKey, text);
+    }
+
+    //for high frequency events such as moves: only about one in every sampleEvery calls is logged
+    public void logSampled(Level level, int sampleEvery, String event, String key1, long value1, String key2, long value2)
+    {
+        if (isEnabled(level) && ThreadLocalRandom.current().nextInt(sampleEvery) == 0)
+            publish(level, event, key1, value1, key2, value2, null, null);
+    }
+
+    public long getDropped()
+    {
+        return dropped.get();
+    }
+
+    private void publish(Level level, String name, String key1, long value1, String key2, long value2, String textKey, String text)
+    {
+        //claim the next slot, unless the writer is a whole ring behind
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - drained >= CAPACITY) {
+                dropped.incrementAndGet();
+                return;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Event event = ring[(int) sequence & (CAPACITY - 1)];
+        event.time = System.currentTimeMillis();
+        event.level = level;
+        event.name = name;
+        event.key1 = key1;
+        event.value1 = value1;
+        event.key2 = key2;
+        event.value2 = value2;
+        event.textKey = textKey;
+        event.text = text;
+        event.thread = Thread.currentThread().getName();
+        event.sequence = sequence; //publish last, the writer only reads an event once its sequence matches
+        if (writerParked)
+            LockSupport.unpark(writerThread);
+    }
+
+    // === Writing (background thread) ===
+
+    private void drain()
+    {
+        long next = 0;
+        StringBuilder line = new StringBuilder(128);
+        boolean unflushed = false;
+        long idlePark = MIN_IDLE_PARK_NANOS;
+
+        while (true) {
+            Event event = ring[(int) next & (CAPACITY - 1)];
+            if (event.sequence != next) {
+                //nothing new to write
+                if (!running)
+                    break;
+                if (unflushed) {
+                    flushFile();
+                    unflushed = false;
+                }
+                //back off while idle, so a quiet process isn't woken a thousand times a second for nothing
+                writerParked = true;
+                if (event.sequence != next && running) //an event logged just before the flag was set would otherwise wait out the sleep
+                    LockSupport.parkNanos(idlePark);
+                writerParked = false;
+                idlePark = Math.min(idlePark * 2, MAX_IDLE_PARK_NANOS);
+                continue;
+            }
+            idlePark = MIN_IDLE_PARK_NANOS;
+
+            line.setLength(0);
+            format(event, line);
+            event.text = null; //don't keep the text alive while the slot waits to be reused
+            drained = ++next; //the slot can be claimed again
+
+            write(line);
+            unflushed = true;
+        }
+
+        flushFile();
+        long lost = dropped.get();
+        if (lost > 0) {
+            line.setLength(0);
+            line.append(Instant.now()).append(" WARN event-log dropped=").append(lost).append('\n');
+            write(line);
+            flushFile();
+        }
+    }
+
+    private static void format(Event event, StringBuilder line)
+    {
+        line.append(Instant.ofEpochMilli(event.time)).append(' ')
+                .append(event.level).append(' ')
+                .append(event.name)
+                .append(" thread=").append(event.thread);
+        if (event.key1 != null)
+            line.append(' ').append(event.key1).append('=').append(event.value1);
+        if (event.key2 != null)
+            line.append(' ').append(event.key2).append('=').append(event.value2);
+        if (event.textKey != null)
+            line.append(' ').append(event.textKey).append("=\"").append(event.text).append('"');
+        line.append('\n');
+    }
+
+    private void write(CharSequence line)
+    {
+        try
+        {
+            if (writer == null || fileBytes >= MAX_FILE_BYTES)
+                rotate();
+            writer.append(line);
+            fileBytes += line.length();
+        }
+        catch (IOException ioException)
+        {
+            ioException.printStackTrace(); //keep logging, the next write tries again
+            writer = null;
+        }
+    }
+
+    private void flushFile()
+    {
+        try
+        {
+            if (writer != null)
+                writer.flush();
+        }
+        catch (IOException ioException)
+        {
+            ioException.printStackTrace();
+        }
+    }
+
+    //start a new file, the current one becomes events.log.1, the old .1 becomes .2 and so on
+    private void rotate() throws IOException
+    {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+
+            for (int i = ROTATED_FILES - 1; i >= 1; i--) {
+                Path older = rotated(i);
+                if (Files.exists(older))
+                    Files.move(older, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    private Path rotated(int number)
+    {
+        return file.resolveSibling(file.getFileName() + "." + number);
+    }
+
+    //stop the writer once everything logged so far is in the file
+    public void close()
+    {
+        running = false;
+        LockSupport.unpark(writerThread);
+        try
+        {
+            writerThread.join(5000);
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //one preallocated slot in the ring, reused for every event logged to it
+    private static final class Event {
+        private volatile long sequence = -1; //which claim this slot currently holds
+        private long time;
+        private Level level;
+        private String name;
+        private String key1;
+        private long value1;
+        private String key2;
+        private long value2;
+        private String textKey;
+        private String text;
+        private String thread;
+    }
+}
@@ -0,0 +1,61 @@
+package Ratings;
+
+//One line of the leaderboard. Entries are immutable, a rating change replaces the player's entry in the index.
+//Ordered highest rating first, ties broken by name so every player has exactly one place in the ordering, then by games
+//so a player's new entry never equals their old one, even when a game leaves the rating unchanged.
+public final class RatingEntry implements Comparable<RatingEntry> {
+
+    private final String name;
+    private final double rating;
+    private final int games;
+
+    RatingEntry(String name, double rating, int games)
+    {
+        this.name = name;
+        this.rating = rating;
+        this.games = games;
+    }
+
+    public String getName()
+    {
+        return name;
+    }
+
+    public double getRating()
+    {
+        return rating;
+    }
+
+    public int getGames()
+    {
+        return games;
+    }
+
+    @Override
+    public int compareTo(RatingEntry other)
+    {
+        int byRating = Double.compare(other.rating, rating);
+        if (byRating != 0)
+            return byRating;
+        int byName = name.compareTo(other.name);
+        return byName != 0 ? byName : Integer.compare(games, other.games);
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+        return other instanceof RatingEntry && compareTo((RatingEntry) other) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return (name.hashCode() * 31 + Double.hashCode(rating)) * 31 + games;
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s %.0f (%d games)", name, rating, games);
+    }
+}
@@ -0,0 +1,328 @@
+package Ratings;
+
+import Server.GameListener;
+import Server.GameResult;
+import Server.TicTacToeGame;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Elo ratings for every player, updated as games finish, with a leaderboard that answers top-K and rank queries in O(log n).
+//
+//Updates from thousands of concurrent games must not queue up behind one lock, so players are spread over a fixed set of
+//lock stripes and a game only locks the (at most two) stripes of its own players, always in stripe order so two games can never deadlock.
+//The ordered index is a skip list of RatingEntry for top-K, plus a Fenwick tree of player counts per whole rating point for rank-of-player,
+//both of which are safe to read while ratings change.
+//
+//With a file, every changed rating is appended to it in batches by a background thread, and the file is compacted on load,
+//so the leaderboard survives restarts. The file has one line per rating change: name, tab, rating, tab, games played.
+public class RatingService implements GameListener {
+
+    public static final double INITIAL_RATING = 1500; //every new player starts here
+    private static final double K_FACTOR = 32; //how far one game can move a rating
+    private static final int MAX_RATING = 4096; //ratings are clamped to 0 - 4095 in the rank index
+    private static final int STRIPES = 64; //number of player locks, a power of two
+    private static final long FLUSH_INTERVAL_SECONDS = 5;
+
+    private final ConcurrentHashMap<String, PlayerRating> players = new ConcurrentHashMap<>();
+    private final Lock[] stripes = new Lock[STRIPES];
+    private final ConcurrentSkipListSet<RatingEntry> leaderboard = new ConcurrentSkipListSet<>();
+    private final AtomicLongArray ratingCounts = new AtomicLongArray(MAX_RATING + 1); //Fenwick tree, index 1 holds rating 0
+    private final Set<String> changedPlayers = ConcurrentHashMap.newKeySet(); //not yet written to the file
+    private final Lock flushLock = new ReentrantLock();
+    private final Path file;
+    private ScheduledExecutorService flusher;
+
+    //ratings kept in memory only, e.g. for a tournament
+    public RatingService()
+    {
+        this.file = null;
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new ReentrantLock();
+    }
+
+    //ratings loaded from and persisted to file, call start() to begin writing changes
+    public RatingService(Path file) throws IOException
+    {
+        this.file = file;
+        for (int i = 0; i < STRIPES; i++)
+            stripes[i] = new ReentrantLock();
+        load();
+    }
+
+    // === Game Results ===
+
+    @Override
+    public void gameOver(TicTacToeGame game, GameResult result)
+    {
+        double scoreForX = result == GameResult.X_WON ? 1 : result == GameResult.DRAW ? 0.5 : 0;
+        recordGame(game.getPlayerXName(), game.getPlayerOName(), scoreForX);
+    }
+
+    //scoreForFirst is 1 for a win, 0.5 for a draw and 0 for a loss
+    public void recordGame(String first, String second, double scoreForFirst)
+    {
+        if (first.equals(second))
+            return; //nobody gains rating by playing themselves
+
+        PlayerRating a = player(first);
+        PlayerRating b = player(second);
+
+        //lock both players' stripes, lowest stripe first so two games locking the same stripes can't deadlock
+        int stripeA = stripe(first);
+        int stripeB = stripe(second);
+        Lock low = stripes[Math.min(stripeA, stripeB)];
+        Lock high = stripes[Math.max(stripeA, stripeB)];
+
+        low.lock();
+        if (high != low) high.lock();
+        try
+        {
+            double expectedForFirst = 1 / (1 + Math.pow(10, (b.rating - a.rating) / 400));
+            double change = K_FACTOR * (scoreForFirst - expectedForFirst);
+            update(a, a.rating + change, a.games + 1);
+            update(b, b.rating - change, b.games + 1);
+        }
+        finally {
+            if (high != low) high.unlock();
+            low.unlock();
+        }
+
+        changedPlayers.add(first);
+        changedPlayers.add(second);
+    }
+
+    private PlayerRating player(String name)
+    {
+        PlayerRating player = players.get(name);
+        if (player != null)
+            return player;
+
+        //only the thread that actually creates the player adds them to the index
+        return players.computeIfAbsent(name, newName -> {
+            PlayerRating created = new PlayerRating(newName, INITIAL_RATING, 0);
+            index(created.entry, 1);
+            return created;
+        });
+    }
+
+    //must hold the player's stripe
+    private void update(PlayerRating player, double rating, int games)
+    {
+        RatingEntry old = player.entry;
+        RatingEntry updated = new RatingEntry(player.name, rating, games);
+
+        player.rating = rating;
+        player.games = games;
+        player.entry = updated;
+
+        //add before remove so the player is never missing from topK, the entries differ because games always goes up
+        leaderboard.add(updated);
+        leaderboard.remove(old);
+        index(old, -1);
+        index(updated, 1);
+    }
+
+    private static int stripe(String name)
+    {
+        int hash = name.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    // === Leaderboard Queries ===
+
+    //the k highest rated players, best first
+    public List<RatingEntry> topK(int k)
+    {
+        List<RatingEntry> top = new ArrayList<>(Math.min(k, 64));
+        Iterator<RatingEntry> iterator = leaderboard.iterator();
+        while (top.size() < k && iterator.hasNext())
+            top.add(iterator.next());
+        return top;
+    }
+
+    //1 for the best player, players on the same whole rating point share a rank, 0 if the player has never played
+    public long rankOf(String name)
+    {
+        PlayerRating player = players.get(name);
+        if (player == null)
+            return 0;
+
+        long atOrBelow = countAtOrBelow(bucket(player.entry.getRating()));
+        return countAtOrBelow(MAX_RATING - 1) - atOrBelow + 1;
+    }
+
+    //the player's rating, or INITIAL_RATING if they have never played
+    public double ratingOf(String name)
+    {
+        PlayerRating player = players.get(name);
+        return player == null ? INITIAL_RATING : player.rating;
+    }
+
+    public int size()
+    {
+        return players.size();
+    }
+
+    // === Rank Index (Fenwick tree of player counts per rating point) ===
+
+    private static int bucket(double rating)
+    {
+        return (int) Math.max(0, Math.min(MAX_RATING - 1, Math.round(rating)));
+    }
+
+    private void index(RatingEntry entry, int delta)
+    {
+        for (int i = bucket(entry.getRating()) + 1; i <= MAX_RATING; i += i & -i)
+            ratingCounts.addAndGet(i, delta);
+    }
+
+    private long countAtOrBelow(int bucket)
+    {
+        long count = 0;
+        for (int i = bucket + 1; i > 0; i -= i & -i)
+            count += ratingCounts.get(i);
+        return count;
+    }
+
+    // === Persistence ===
+
+    //start writing changed ratings to the file every few seconds
+    public void start()
+    {
+        if (file == null || flusher != null)
+            return;
+
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rating-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(() -> {
+            try
+            {
+                flush();
+            }
+            catch (IOException ioException)
+            {
+                ioException.printStackTrace(); //keep the ratings in memory, the next flush tries again
+            }
+        }, FLUSH_INTERVAL_SECONDS, FLUSH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    //append every rating changed since the last flush to the file as one write
+    public void flush() throws IOException
+    {
+        if (file == null)
+            return;
+
+        flushLock.lock();
+        try
+        {
+            StringBuilder batch = new StringBuilder();
+            Iterator<String> changed = changedPlayers.iterator();
+            while (changed.hasNext()) {
+                String name = changed.next();
+                changed.remove(); //a change made after this point marks the player again and goes in the next batch
+                RatingEntry entry = players.get(name).entry;
+                batch.append(entry.getName()).append('\t').append(entry.getRating()).append('\t').append(entry.getGames()).append('\n');
+            }
+
+            if (batch.length() > 0)
+                Files.write(file, batch.toString().getBytes(StandardCharsets.UTF_8),
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        finally {
+            flushLock.unlock();
+        }
+    }
+
+    //stop the background writer and write anything still pending
+    public void close()
+    {
+        if (flusher != null)
+            flusher.shutdown();
+        try
+        {
+            flush();
+        }
+        catch (IOException ioException)
+        {
+            ioException.printStackTrace();
+        }
+    }
+
+    //read the file, the last line for a player wins, then rewrite it with a single line per player
+    private void load() throws IOException
+    {
+        if (!Files.exists(file))
+            return;
+
+        Map<String, String[]> latest = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 3)
+                    latest.put(fields[0], fields);
+            }
+        }
+
+        StringBuilder compacted = new StringBuilder();
+        for (String[] fields : latest.values()) {
+            double rating;
+            int games;
+            try {
+                rating = Double.parseDouble(fields[1]);
+                games = Integer.parseInt(fields[2]);
+            } catch (NumberFormatException e) {
+                continue; //a line cut short by a crash, the player's earlier rating is already lost so start them again
+            }
+
+            PlayerRating player = new PlayerRating(fields[0], rating, games);
+            players.put(player.name, player);
+            index(player.entry, 1);
+            compacted.append(fields[0]).append('\t').append(rating).append('\t').append(games).append('\n');
+        }
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temporary, compacted.toString().getBytes(StandardCharsets.UTF_8));
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    //a player's current rating, only changed while holding the player's stripe
+    private class PlayerRating {
+        private final String name;
+        private volatile double rating;
+        private volatile int games;
+        private volatile RatingEntry entry; //this player's place in the leaderboard
+
+        private PlayerRating(String name, double rating, int games)
+        {
+            this.name = name;
+            this.rating = rating;
+            this.games = games;
+            this.entry = new RatingEntry(name, rating, games);
+            leaderboard.add(entry);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package Records;
+
+import Server.GameResult;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+//Offline statistics over record files written by GameRecordWriter.
+//
+//Every file is memory mapped and cut into slices of about a million records, the slices are scanned on every core with a
+//parallel stream (the common fork/join pool) and the per-slice totals are merged at the end. A record is a single long,
+//so a scan is little more than reading memory and hundreds of millions of games take seconds to minutes.
+public class GameAnalytics {
+
+    private static final int SLICE_RECORDS = 1 << 20; //records scanned by one task
+    private static final long MAX_MAPPING_BYTES = 1L << 30; //a mapping can't exceed 2GB, large files are mapped in pieces
+
+    //scan every file and return the combined totals
+    public static Totals analyze(List<Path> files) throws IOException
+    {
+        List<ByteBuffer> slices = new ArrayList<>();
+        for (Path file : files)
+            addSlices(file, slices);
+
+        return slices.parallelStream()
+                .map(GameAnalytics::scan)
+                .reduce(Totals::merge) //merge adds into its left side, every side is a fresh Totals from scan
+                .orElseGet(Totals::new);
+    }
+
+    private static void addSlices(Path file, List<ByteBuffer> slices) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < GameRecord.HEADER_BYTES)
+                return; //an empty file, no games recorded yet
+
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, GameRecord.HEADER_BYTES);
+            if (header.getLong() != GameRecord.MAGIC)
+                throw new IOException(file + " is not a game record file");
+
+            //whole records only, a record cut short by a crash is ignored
+            long recordBytes = (size - GameRecord.HEADER_BYTES) / GameRecord.RECORD_BYTES * GameRecord.RECORD_BYTES;
+            long sliceBytes = (long) SLICE_RECORDS * GameRecord.RECORD_BYTES;
+
+            for (long mapped = 0; mapped < recordBytes; mapped += MAX_MAPPING_BYTES) {
+                long length = Math.min(MAX_MAPPING_BYTES, recordBytes - mapped);
+                MappedByteBuffer mapping = channel.map(FileChannel.MapMode.READ_ONLY, GameRecord.HEADER_BYTES + mapped, length);
+
+                //the mapping stays valid after the channel is closed
+                for (long start = 0; start < length; start += sliceBytes) {
+                    ByteBuffer slice = mapping.duplicate();
+                    slice.position((int) start);
+                    slice.limit((int) Math.min(length, start + sliceBytes));
+                    slices.add(slice.slice());
+                }
+            }
+        }
+    }
+
+    private static Totals scan(ByteBuffer slice)
+    {
+        Totals totals = new Totals();
+        while (slice.hasRemaining())
+            totals.add(slice.getLong());
+        return totals;
+    }
+
+    //counts over a set of games, one per slice while scanning and then merged into one
+    public static class Totals {
+        private long games;
+        private long moves;
+        private final long[] results = new long[3]; //by GameResult ordinal
+        private final long[][] openings = new long[9][3]; //by X's first square, then result
+        private final LineCounter drawingLines = new LineCounter();
+
+        private void add(long record)
+        {
+            int length = GameRecord.length(record);
+            GameResult result = GameRecord.result(record);
+
+            games++;
+            moves += length;
+            results[result.ordinal()]++;
+            if (length > 0)
+                openings[GameRecord.move(record, 0)][result.ordinal()]++;
+            if (result == GameResult.DRAW)
+                drawingLines.increment(GameRecord.line(record));
+        }
+
+        private Totals merge(Totals other)
+        {
+            games += other.games;
+            moves += other.moves;
+            for (int i = 0; i < results.length; i++)
+                results[i] += other.results[i];
+            for (int square = 0; square < openings.length; square++)
+                for (int i = 0; i < results.length; i++)
+                    openings[square][i] += other.openings[square][i];
+            drawingLines.addAll(other.drawingLines);
+            return this;
+        }
+
+        public long getGames()
+        {
+            return games;
+        }
+
+        public double getAverageLength()
+        {
+            return games == 0 ? 0 : (double) moves / games;
+        }
+
+        public long getResultCount(GameResult result)
+        {
+            return results[result.ordinal()];
+        }
+
+        //how often the player who moves first (always X) wins
+        public double getFirstMoveWinRate()
+        {
+            return games == 0 ? 0 : (double) results[GameResult.X_WON.ordinal()] / games;
+        }
+
+        public String report(int drawingLinesShown)
+        {
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("Games: %d%n", games));
+            report.append(String.format("Average length: %.2f moves%n", getAverageLength()));
+            report.append(String.format("X won %.1f%%, O won %.1f%%, drawn %.1f%%%n",
+                    percent(results[0], games), percent(results[1], games), percent(results[2], games)));
+            report.append(String.format("First move win rate: %.1f%%%n%n", 100 * getFirstMoveWinRate()));
+
+            report.append(String.format("%-8s %12s %8s %8s %8s%n", "Opening", "Games", "X won", "O won", "Drawn"));
+            for (int square = 0; square < openings.length; square++) {
+                long[] opening = openings[square];
+                long played = opening[0] + opening[1] + opening[2];
+                if (played == 0)
+                    continue;
+                report.append(String.format("%-8d %12d %7.1f%% %7.1f%% %7.1f%%%n", square, played,
+                        percent(opening[0], played), percent(opening[1], played), percent(opening[2], played)));
+            }
+
+            report.append(String.format("%nMost common drawing lines%n"));
+            for (long[] line : drawingLines.top(drawingLinesShown)) {
+                StringBuilder squares = new StringBuilder();
+                for (int i = 0; i < 9; i++)
+                    squares.append(i == 0 ? "" : " ").append(GameRecord.move(line[0], i));
+                report.append(String.format("%12d  %s%n", line[1], squares));
+            }
+            return report.toString();
+        }
+
+        private static double percent(long count, long total)
+        {
+            return total == 0 ? 0 : 100.0 * count / total;
+        }
+    }
+
+    //counts per game line, an open addressing table of longs so counting a game allocates nothing
+    //there are only 46,080 distinct drawn games of tic-tac-toe, so the table stays small however many games are scanned
+    static class LineCounter {
+        private static final long EMPTY = -1; //no line has every bit set
+
+        private long[] lines = newTable(1024);
+        private long[] counts = new long[1024];
+        private int size;
+
+        private static long[] newTable(int capacity)
+        {
+            long[] table = new long[capacity];
+            Arrays.fill(table, EMPTY);
+            return table;
+        }
+
+        void increment(long line)
+        {
+            add(line, 1);
+        }
+
+        void add(long line, long count)
+        {
+            int mask = lines.length - 1;
+            int slot = Long.hashCode(line * 0x9E3779B97F4A7C15L) & mask;
+            while (lines[slot] != EMPTY && lines[slot] != line)
+                slot = (slot + 1) & mask;
+
+            if (lines[slot] == EMPTY) {
+                lines[slot] = line;
+                size++;
+            }
+            counts[slot] += count;
+
+            if (size * 2 > lines.length)
+                grow();
+        }
+
+        void addAll(LineCounter other)
+        {
+            for (int i = 0; i < other.lines.length; i++)
+                if (other.lines[i] != EMPTY)
+                    add(other.lines[i], other.counts[i]);
+        }
+
+        private void grow()
+        {
+            long[] oldLines = lines;
+            long[] oldCounts = counts;
+            lines = newTable(oldLines.length * 2);
+            counts = new long[oldLines.length * 2];
+            size = 0;
+            for (int i = 0; i < oldLines.length; i++)
+                if (oldLines[i] != EMPTY)
+                    add(oldLines[i], oldCounts[i]);
+        }
+
+        //the n most counted lines as {line, count}, most counted first
+        List<long[]> top(int n)
+        {
+            List<long[]> all = new ArrayList<>(size);
+            for (int i = 0; i < lines.length; i++)
+                if (lines[i] != EMPTY)
+                    all.add(new long[] {lines[i], counts[i]});
+            all.sort((a, b) -> Long.compare(b[1], a[1]));
+            return all.subList(0, Math.min(n, all.size()));
+        }
+    }
+}
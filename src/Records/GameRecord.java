@@ -0,0 +1,56 @@
+package Records;
+
+import Server.GameResult;
+
+//The compact export format for a finished game: the whole game packed into one long.
+//
+//  bits  0-35  up to 9 moves, 4 bits each, the first move in the lowest bits
+//  bits 36-39  number of moves
+//  bits 40-41  result, the GameResult ordinal (X won, O won, draw)
+//
+//A record file is an 8 byte header (MAGIC) followed by records as big-endian longs, so a file can be memory mapped
+//and split anywhere on an 8 byte boundary (see GameAnalytics).
+public final class GameRecord {
+
+    public static final long MAGIC = 0x5454545245433031L; //"TTTREC01"
+    public static final int HEADER_BYTES = 8;
+    public static final int RECORD_BYTES = 8;
+
+    private static final GameResult[] RESULTS = GameResult.values();
+
+    private GameRecord()
+    {
+    }
+
+    public static long encode(int[] moves, GameResult result)
+    {
+        long record = 0;
+        for (int i = 0; i < moves.length; i++)
+            record |= (long) moves[i] << (4 * i);
+        record |= (long) moves.length << 36;
+        record |= (long) result.ordinal() << 40;
+        return record;
+    }
+
+    public static int length(long record)
+    {
+        return (int) (record >>> 36) & 0xF;
+    }
+
+    //the location of move number index, 0 being X's first move
+    public static int move(long record, int index)
+    {
+        return (int) (record >>> (4 * index)) & 0xF;
+    }
+
+    //just the moves, two games played the same way have the same line
+    public static long line(long record)
+    {
+        return record & 0xF_FFFF_FFFFL;
+    }
+
+    public static GameResult result(long record)
+    {
+        return RESULTS[(int) (record >>> 40) & 0x3];
+    }
+}
@@ -0,0 +1,99 @@
+package Records;
+
+import Server.GameListener;
+import Server.GameResult;
+import Server.TicTacToeGame;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Appends a GameRecord for every finished game to a record file.
+//Games finish on many threads at once, so records are collected in a buffer under a lock and written 64KB at a time,
+//adding a record costs an 8 byte put rather than a file write.
+public class GameRecordWriter implements GameListener {
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+    private final Lock writeLock = new ReentrantLock();
+
+    //open file for appending, a new file gets the record header
+    public GameRecordWriter(Path file) throws IOException
+    {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        if (channel.size() == 0) {
+            buffer.putLong(GameRecord.MAGIC);
+            writeBuffer();
+        }
+    }
+
+    @Override
+    public void gameOver(TicTacToeGame game, GameResult result)
+    {
+        write(GameRecord.encode(game.getMoves(), result));
+    }
+
+    public void write(long record)
+    {
+        writeLock.lock();
+        try
+        {
+            buffer.putLong(record);
+            if (!buffer.hasRemaining())
+                writeBuffer();
+        }
+        catch (IOException ioException)
+        {
+            ioException.printStackTrace(); //losing records must never break a game in progress
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    //write whatever is buffered, e.g. before reading the file
+    public void flush() throws IOException
+    {
+        writeLock.lock();
+        try
+        {
+            writeBuffer();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void close() throws IOException
+    {
+        writeLock.lock();
+        try
+        {
+            writeBuffer();
+            channel.close();
+        }
+        finally {
+            writeLock.unlock();
+        }
+    }
+
+    //must hold writeLock. If the write fails the buffered records are dropped, so the buffer is always ready for the next record
+    private void writeBuffer() throws IOException
+    {
+        buffer.flip();
+        try
+        {
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+        finally {
+            buffer.clear();
+        }
+    }
+}
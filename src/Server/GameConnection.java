@@ -0,0 +1,21 @@
+package Server;
+
+import java.io.IOException;
+
+//A line based link between the server and one client.
+//The game only ever reads whole lines from a client and writes formatted text back, so anything that can do those
+//two things can carry a game: a real TCP socket (SocketConnection) or a pair of in-memory queues (LoopbackConnection)
+public interface GameConnection {
+
+    //blocks until the client sends a line, returns null once the client has gone away
+    String readLine() throws IOException;
+
+    //queue formatted text for the client, nothing is sent until flush is called
+    void format(String format, Object... args);
+
+    //push any queued text to the client
+    void flush();
+
+    //close the link, the other end sees this as the end of the stream
+    void close() throws IOException;
+}
@@ -0,0 +1,331 @@
+package Server;
+
+import Logging.EventLog;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+//The networking side of the server: accepts client connections and seats them two at a time in a TicTacToeGame,
+//which runs the board and the two Player threads (see TicTacToeGame for how those threads are synchronized).
+//It needs no window, TicTacToeServer shows it in one and Harness.LatencyHarness runs it headless.
+//
+//The first line a client sends says what it wants:
+//  "Play alice"                              seat me in the next game
+//  "Resume 12 X 5f0c1e2d3a4b6978 alice"      put me back in seat X of game 12, which was parked when a player disconnected
+//Each player is sent "Game <id> <token>" when their game starts, and only that token gets their seat back.
+//The name is who gets the rating. A client that sends none, or one that isn't a plain word, is given a guest name of its
+//own, so two players are never rated as one because they share a machine or an address. Guests are never rated (see
+//isGuest), a name used for a single game would only crowd the leaderboard and ratings.log.
+//A parked game lives off-heap in ParkedGames until both of its players have come back for it.
+public class GameHost {
+
+    private static final int HELLO_TIMEOUT_MILLIS = 10000; //how long a new connection has to say what it wants
+    private static final int ADMISSION_THREADS = 4; //read new clients' first lines, each waits at most HELLO_TIMEOUT_MILLIS
+    private static final long PARKED_GAME_LIFETIME_MILLIS = TimeUnit.DAYS.toMillis(1); //parked games nobody resumes are dropped after this
+    private static final long RETURN_WAIT_MILLIS = TimeUnit.MINUTES.toMillis(10); //how long a returning player waits for their opponent
+    private static final int MAX_NAME_LENGTH = 24;
+    private static final String GUEST_PREFIX = "guest-"; //reserved, a client can't ask for a name starting with it
+    private static final EventLog LOG = EventLog.get();
+
+    private ServerSocket server; //server socket to connect with Clients.  Represents a TCP socket connection to the client.
+    private ExecutorService runGame; //runs the Player threads, two per game being played
+    //reads each new client's first line. Kept apart from runGame, so when a fixed size runGame is full of games being
+    //played new clients are still admitted (their games then wait for a thread) and the hello timeout still applies
+    private ExecutorService admission = Executors.newFixedThreadPool(ADMISSION_THREADS, task -> {
+        Thread thread = new Thread(task, "admission");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Consumer<String> messageDisplay; //where moves and connections are reported
+    private List<GameListener> gameListeners = new ArrayList<>(); //added to every game this host starts
+    private TicTacToeGame waitingGame; //a game with player X seated, waiting for an O, or null
+    private ParkedGames parkedGames = new ParkedGames(1024); //unfinished games whose players have left, stored off-heap
+    private Map<Long, ReturningPlayers> returningPlayers = new HashMap<>(); //parked games with one player back so far
+    private Lock lobbyLock = new ReentrantLock(); //guards waitingGame and returningPlayers
+    private ScheduledExecutorService parkingCleaner;
+    private TickProcessor ticks; //plays every game's moves in batches, or null to play each move as it arrives
+    private AtomicLong guests = new AtomicLong(); //numbers the players who connect without a name
+
+
+    //listen on port (0 for any free port), with room for backlog connections waiting to be accepted
+    public GameHost(int port, int backlog, ExecutorService runGame, Consumer<String> messageDisplay) throws IOException
+    {
+        this.runGame = runGame;
+        this.messageDisplay = messageDisplay;
+        server = new ServerSocket(port, backlog); //set up ServerSocket
+    }
+
+    //listeners must be added before execute
+    public void addGameListener(GameListener listener)
+    {
+        gameListeners.add(listener);
+    }
+
+    //play the moves of every game started from now on in tick mode
+    public void setTickProcessor(TickProcessor ticks)
+    {
+        this.ticks = ticks;
+    }
+
+    public int getPort()
+    {
+        return server.getLocalPort();
+    }
+
+    public ParkedGames getParkedGames()
+    {
+        return parkedGames;
+    }
+
+    //accept clients until close() is called
+    public void execute()
+    {
+        //once a minute, forget parked games that nobody came back for and players who waited too long for their opponent
+        parkingCleaner = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "parked-game-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        parkingCleaner.scheduleWithFixedDelay(this::evictStaleGames, 1, 1, TimeUnit.MINUTES);
+
+        while (!server.isClosed()) {
+            try  //wait for connection, then let a pooled thread find it a game
+            {
+                // === Player Thread Initialization ===
+                // Main thread pauses for incoming client connection.
+                // The client's first line is read off the main thread, so a slow client can't hold up everyone else connecting.
+                Socket socket = server.accept();
+                admission.execute(() -> admit(socket));
+            }
+            catch (IOException ioException)
+            {
+                if (server.isClosed())
+                    break; //close() was called
+                ioException.printStackTrace();
+                System.exit(1);
+            }
+        }
+        parkingCleaner.shutdownNow();
+        admission.shutdown();
+    }
+
+    //stop accepting clients, games already being played carry on
+    public void close() throws IOException
+    {
+        server.close();
+    }
+
+    //read what a new client wants and seat it in a new game or a parked one
+    private void admit(Socket socket)
+    {
+        try
+        {
+            SocketConnection connection = new SocketConnection(socket);
+            socket.setSoTimeout(HELLO_TIMEOUT_MILLIS);
+            String hello = connection.readLine();
+            socket.setSoTimeout(0); //from here on the client may think about its move as long as it likes
+
+            if (hello == null) {
+                connection.close();
+                return;
+            }
+            String[] parts = hello.trim().split(" +");
+            if (parts[0].equals("Resume"))
+                resume(connection, playerName(parts, 4), parts);
+            else
+                join(connection, playerName(parts, 1));
+        }
+        catch (IOException ioException)
+        {
+            //the client never said what it wanted, it is dropped without affecting anyone else
+            LOG.log(EventLog.Level.WARN, "admit-failed", "port", socket.getPort(), "reason", String.valueOf(ioException.getMessage()));
+            try
+            {
+                socket.close();
+            }
+            catch (IOException closeException)
+            {
+                closeException.printStackTrace();
+            }
+        }
+    }
+
+    //the first player waits as X in a new game, the next one joins it as O and the game starts
+    private void join(GameConnection connection, String playerName)
+    {
+        lobbyLock.lock();
+        try
+        {
+            if (waitingGame == null) {
+                waitingGame = newGame();
+                waitingGame.addPlayer(connection, playerName);
+            } else {
+                waitingGame.addPlayer(connection, playerName);
+                waitingGame.start(); //both clients have connected to the server, player X can start
+                waitingGame = null;
+            }
+        }
+        finally {
+            lobbyLock.unlock();
+        }
+    }
+
+    //whether playerName was given out by the server to a client that didn't send one, such players aren't rated
+    public static boolean isGuest(String playerName)
+    {
+        return playerName.startsWith(GUEST_PREFIX);
+    }
+
+    //the name the client gave at parts[index], or a guest name nobody else has
+    private String playerName(String[] parts, int index)
+    {
+        if (parts.length > index && parts[index].length() <= MAX_NAME_LENGTH && parts[index].matches("[A-Za-z0-9_.-]+")
+                && !isGuest(parts[index]))
+            return parts[index];
+        return GUEST_PREFIX + guests.incrementAndGet();
+    }
+
+    //"Resume 12 X 5f0c1e2d3a4b6978 alice": put the player back in their seat, and once both seats are back take the game
+    //out of parking and carry on
+    private void resume(GameConnection connection, String playerName, String[] parts) throws IOException
+    {
+        long gameId = -1;
+        long resumeToken = 0;
+        int seat = parts.length >= 4 ? "XO".indexOf(parts[2]) : -1;
+        if (seat >= 0 && parts[2].length() == 1) {
+            try
+            {
+                gameId = Long.parseLong(parts[1]);
+                resumeToken = Long.parseUnsignedLong(parts[3], 16);
+            }
+            catch (NumberFormatException numberFormatException)
+            {
+                gameId = -1;
+            }
+        }
+
+        lobbyLock.lock();
+        try
+        {
+            if (gameId < 0 || !parkedGames.canResume(gameId, seat, resumeToken)) {
+                //the same answer whether the game or the token is wrong, so ids can't be probed for parked games
+                connection.format("Resume failed, no parked game with that id, mark and token\n");
+                connection.flush();
+                connection.close();
+                return;
+            }
+
+            ReturningPlayers returning = returningPlayers.computeIfAbsent(gameId, id -> new ReturningPlayers());
+            if (returning.connections[seat] != null) {
+                //this seat came back before and is still waiting. Nothing reads a waiting connection, so we can't tell whether
+                //it dropped, but a player only asks again when it has, so the new connection takes the seat
+                LOG.log(EventLog.Level.INFO, "resume-replaced", "game", gameId, "seat", seat);
+                closeQuietly(returning.connections[seat], "Resumed from another connection");
+            }
+            returning.connections[seat] = connection;
+            returning.names[seat] = playerName;
+            returning.lastArrivalMillis = System.currentTimeMillis();
+            if (returning.connections[1 - seat] == null) {
+                connection.format("Waiting for your opponent to resume game %d\n", gameId);
+                connection.flush();
+                return;
+            }
+
+            //both players are back, bring the game back onto the heap and carry on from where it stopped
+            returningPlayers.remove(gameId);
+            int[] moves = parkedGames.take(gameId);
+            if (moves == null) {
+                //evicted while the second player was on their way
+                for (GameConnection returned : returning.connections)
+                    closeQuietly(returned, "Resume failed, game " + gameId + " is no longer parked");
+                return;
+            }
+            TicTacToeGame game = newGame();
+            game.restore(moves);
+            messageDisplay.accept("\nGame " + gameId + " resumed as game " + game.getGameId());
+            for (int i = 0; i < 2; i++)
+                game.addPlayer(returning.connections[i], returning.names[i]);
+            game.start();
+        }
+        finally {
+            lobbyLock.unlock();
+        }
+    }
+
+    //every game reports to our display and listeners, and is parked if a player leaves early
+    private TicTacToeGame newGame()
+    {
+        TicTacToeGame game = new TicTacToeGame(runGame, messageDisplay);
+        for (GameListener listener : gameListeners)
+            game.addGameListener(listener);
+        game.setParking(parkedGames);
+        game.setTickProcessor(ticks);
+        return game;
+    }
+
+    private void evictStaleGames()
+    {
+        int evicted = parkedGames.evictParkedBefore(System.currentTimeMillis() - PARKED_GAME_LIFETIME_MILLIS);
+        if (evicted > 0)
+            LOG.log(EventLog.Level.INFO, "parked-games-evicted", "evicted", evicted, "parked", parkedGames.size());
+
+        //a player waiting for an opponent who isn't coming holds a connection, send them away (their game stays parked)
+        long cutoff = System.currentTimeMillis() - RETURN_WAIT_MILLIS;
+        lobbyLock.lock();
+        try
+        {
+            Iterator<Map.Entry<Long, ReturningPlayers>> waiting = returningPlayers.entrySet().iterator();
+            while (waiting.hasNext()) {
+                Map.Entry<Long, ReturningPlayers> entry = waiting.next();
+                boolean parked = parkedGames.isParked(entry.getKey());
+                if (entry.getValue().lastArrivalMillis >= cutoff && parked)
+                    continue;
+                for (GameConnection connection : entry.getValue().connections)
+                    if (connection != null)
+                        closeQuietly(connection, parked ? "Your opponent did not come back, try again later" : "Game " + entry.getKey() + " is no longer parked");
+                waiting.remove();
+                LOG.log(EventLog.Level.INFO, "returning-players-expired", "game", entry.getKey());
+            }
+        }
+        finally {
+            lobbyLock.unlock();
+        }
+    }
+
+    //tell a client why it is being let go and close its connection
+    private static void closeQuietly(GameConnection connection, String reason)
+    {
+        try
+        {
+            connection.format("%s\n", reason);
+            connection.flush();
+            connection.close();
+        }
+        catch (IOException ioException)
+        {
+            //it is being dropped anyway
+            LOG.log(EventLog.Level.DEBUG, "close-failed");
+        }
+    }
+
+    //players who have come back for a parked game, held until their opponent comes back too
+    private static class ReturningPlayers {
+        private final GameConnection[] connections = new GameConnection[2];
+        private final String[] names = new String[2];
+        private long lastArrivalMillis; //when a player last came back, the pair is given up RETURN_WAIT_MILLIS after it
+    }
+}
@@ -0,0 +1,7 @@
+package Server;
+
+//told when a game finishes, on the thread of the player who made the last move
+public interface GameListener {
+
+    void gameOver(TicTacToeGame game, GameResult result);
+}
@@ -0,0 +1,8 @@
+package Server;
+
+//how a finished game ended
+public enum GameResult {
+    X_WON,
+    O_WON,
+    DRAW
+}
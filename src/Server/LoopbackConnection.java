@@ -0,0 +1,95 @@
+package Server;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+//In-process GameConnection. Two ends share a pair of queues, every flushed line written on one end is read as a line on the other.
+//The server and client message contract is exactly the same as over a socket, we just skip the network stack,
+//which lets us run huge numbers of games inside one JVM (see Tournament.TournamentRunner).
+public class LoopbackConnection implements GameConnection {
+
+    //marker put on a queue when an end is closed, compared by identity so no real message can ever match it
+    private static final String CLOSED = new String("<closed>");
+
+    private final BlockingQueue<String> inbound; //lines coming to this end
+    private final BlockingQueue<String> outbound; //lines going to the other end
+    private final StringBuilder pending = new StringBuilder(); //text formatted but not yet flushed
+    private volatile boolean closed;
+
+    private LoopbackConnection(BlockingQueue<String> inbound, BlockingQueue<String> outbound)
+    {
+        this.inbound = inbound;
+        this.outbound = outbound;
+    }
+
+    //create two connected ends, index 0 goes to the server (TicTacToeGame.addPlayer) and index 1 is used by the client
+    public static LoopbackConnection[] pair()
+    {
+        BlockingQueue<String> toServer = new LinkedBlockingQueue<>();
+        BlockingQueue<String> toClient = new LinkedBlockingQueue<>();
+        return new LoopbackConnection[] {
+                new LoopbackConnection(toServer, toClient),
+                new LoopbackConnection(toClient, toServer)
+        };
+    }
+
+    @Override
+    public String readLine() throws IOException
+    {
+        try
+        {
+            String line = inbound.take();
+            if (line == CLOSED) {
+                inbound.offer(CLOSED); //leave the marker so any later read also sees the end of the stream
+                return null;
+            }
+            return line;
+        }
+        catch (InterruptedException exception)
+        {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for a line");
+        }
+    }
+
+    @Override
+    public synchronized void format(String format, Object... args)
+    {
+        //most server messages are plain text, skip the Formatter for those
+        if (args.length == 0 && format.indexOf('%') < 0)
+            pending.append(format);
+        else
+            pending.append(String.format(format, args));
+    }
+
+    //hand every complete line over to the other end, anything after the last newline waits for the next flush
+    @Override
+    public synchronized void flush()
+    {
+        if (closed)
+            return;
+
+        int start = 0;
+        for (int i = 0; i < pending.length(); i++) {
+            if (pending.charAt(i) == '\n') {
+                outbound.offer(pending.substring(start, i));
+                start = i + 1;
+            }
+        }
+        pending.delete(0, start);
+    }
+
+    //the other end reads what was flushed before this and then the end of the stream, and like closing a socket,
+    //a read blocked on this end returns too
+    @Override
+    public synchronized void close()
+    {
+        if (!closed) {
+            closed = true;
+            outbound.offer(CLOSED);
+            inbound.offer(CLOSED);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package Server;
+
+//Turns a line from a client into a board location without throwing.
+//Clients are untrusted, so a bad line must cost no more than a good one: no NumberFormatException, no trimmed copy of the line,
+//and nothing outside 0-8 ever reaches the board.
+public final class MoveParser {
+
+    public static final int INVALID = -1; //returned for anything that is not a location on the board
+
+    private MoveParser()
+    {
+    }
+
+    //a single digit 0-8, optionally surrounded by whitespace
+    public static int parseLocation(String line)
+    {
+        int start = 0;
+        int end = line.length();
+        while (start < end && Character.isWhitespace(line.charAt(start))) start++;
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) end--;
+
+        if (end - start != 1)
+            return INVALID;
+
+        char digit = line.charAt(start);
+        return digit >= '0' && digit <= '8' ? digit - '0' : INVALID;
+    }
+}
@@ -0,0 +1,238 @@
+package Server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Off-heap store for games nobody is currently playing, addressed by game id.
+//
+//A live game holds two Player threads, their connections and buffers and a String[] board. A parked game (both players
+//disconnected, waiting to resume) needs none of that: its moves fit in a long, so it is kept as one 40 byte slot in a
+//direct ByteBuffer and everything on the heap is let go. However many games are parked, the heap and GC pauses don't grow.
+//
+//Slot layout:
+//  bytes  0-7   game id, 0 for an empty slot (ids start at 1)
+//  bytes  8-15  moves, 4 bits each with the first move lowest (same packing as Records.GameRecord), move count in bits 36-39
+//  bytes 16-19  when the game was parked, unsigned seconds since the epoch
+//  bytes 20-23  unused, keeps slots 8 byte aligned
+//  bytes 24-39  each seat's resume token, X then O: a random number only that seat's player was sent, so nobody else can take it
+//
+//Slots form an open addressing hash table on game id (linear probing) that doubles when it is 70% full.
+//Parking and resuming happen once per disconnect, not per move, so a single lock is plenty.
+public class ParkedGames {
+
+    private static final int SLOT_BYTES = 40;
+    private static final int ID = 0;
+    private static final int MOVES = 8;
+    private static final int PARKED_AT = 16;
+    private static final int TOKENS = 24;
+
+    private final Lock lock = new ReentrantLock();
+    private ByteBuffer slab;
+    private int capacity; //slots, a power of two
+    private int size;
+
+    public ParkedGames(int initialCapacity)
+    {
+        capacity = Integer.highestOneBit(Math.max(16, initialCapacity - 1) << 1);
+        slab = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+    }
+
+    //store an unfinished game and the tokens its players need to resume it, replacing any earlier parking of the same game
+    public void park(long gameId, int[] moves, long[] resumeTokens, long parkedAtMillis)
+    {
+        long packed = (long) moves.length << 36;
+        for (int i = 0; i < moves.length; i++)
+            packed |= (long) moves[i] << (4 * i);
+
+        lock.lock();
+        try
+        {
+            int slot = find(gameId);
+            if (slot < 0) {
+                if ((size + 1) * 10 > capacity * 7)
+                    grow();
+                slot = emptySlotFor(gameId);
+                size++;
+            }
+            int offset = slot * SLOT_BYTES;
+            slab.putLong(offset + ID, gameId);
+            slab.putLong(offset + MOVES, packed);
+            slab.putInt(offset + PARKED_AT, (int) (parkedAtMillis / 1000));
+            slab.putLong(offset + TOKENS, resumeTokens[0]);
+            slab.putLong(offset + TOKENS + 8, resumeTokens[1]);
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    //whether gameId is parked and can be resumed
+    public boolean isParked(long gameId)
+    {
+        lock.lock();
+        try
+        {
+            return find(gameId) >= 0;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    //whether gameId is parked and resumeToken is the one seat (0 for X, 1 for O) was given
+    public boolean canResume(long gameId, int seat, long resumeToken)
+    {
+        lock.lock();
+        try
+        {
+            int slot = find(gameId);
+            return slot >= 0 && slab.getLong(slot * SLOT_BYTES + TOKENS + 8 * seat) == resumeToken;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    //remove a parked game to play it again, returns its moves or null if it isn't parked
+    public int[] take(long gameId)
+    {
+        lock.lock();
+        try
+        {
+            int slot = find(gameId);
+            if (slot < 0)
+                return null;
+
+            long packed = slab.getLong(slot * SLOT_BYTES + MOVES);
+            remove(slot);
+
+            int[] moves = new int[(int) (packed >>> 36) & 0xF];
+            for (int i = 0; i < moves.length; i++)
+                moves[i] = (int) (packed >>> (4 * i)) & 0xF;
+            return moves;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    //forget games parked before cutoffMillis, returns how many were dropped
+    public int evictParkedBefore(long cutoffMillis)
+    {
+        long cutoffSeconds = cutoffMillis / 1000;
+        lock.lock();
+        try
+        {
+            List<Long> expired = new ArrayList<>();
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = slot * SLOT_BYTES;
+                long gameId = slab.getLong(offset + ID);
+                if (gameId != 0 && Integer.toUnsignedLong(slab.getInt(offset + PARKED_AT)) < cutoffSeconds)
+                    expired.add(gameId);
+            }
+            //removing shifts later slots back, so remove by id once the scan is done
+            for (long gameId : expired)
+                remove(find(gameId));
+            return expired.size();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public int size()
+    {
+        lock.lock();
+        try
+        {
+            return size;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    public long offHeapBytes()
+    {
+        lock.lock();
+        try
+        {
+            return (long) capacity * SLOT_BYTES;
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    // === Hash Table (must hold lock) ===
+
+    private int home(long gameId)
+    {
+        long hash = gameId * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+    }
+
+    private long idAt(int slot)
+    {
+        return slab.getLong(slot * SLOT_BYTES + ID);
+    }
+
+    private int find(long gameId)
+    {
+        for (int slot = home(gameId); ; slot = (slot + 1) & (capacity - 1)) {
+            long id = idAt(slot);
+            if (id == gameId) return slot;
+            if (id == 0) return -1;
+        }
+    }
+
+    private int emptySlotFor(long gameId)
+    {
+        int slot = home(gameId);
+        while (idAt(slot) != 0)
+            slot = (slot + 1) & (capacity - 1);
+        return slot;
+    }
+
+    //empty a slot, moving back any later slot in the same run that would otherwise become unreachable
+    private void remove(int hole)
+    {
+        int mask = capacity - 1;
+        for (int next = (hole + 1) & mask; idAt(next) != 0; next = (next + 1) & mask) {
+            int home = home(idAt(next));
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                copySlot(next, hole);
+                hole = next;
+            }
+        }
+        for (int i = 0; i < SLOT_BYTES; i += 8)
+            slab.putLong(hole * SLOT_BYTES + i, 0);
+        size--;
+    }
+
+    private void copySlot(int from, int to)
+    {
+        for (int i = 0; i < SLOT_BYTES; i += 8)
+            slab.putLong(to * SLOT_BYTES + i, slab.getLong(from * SLOT_BYTES + i));
+    }
+
+    private void grow()
+    {
+        ByteBuffer old = slab;
+        int oldCapacity = capacity;
+
+        capacity *= 2;
+        slab = ByteBuffer.allocateDirect(capacity * SLOT_BYTES);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long gameId = old.getLong(slot * SLOT_BYTES + ID);
+            if (gameId == 0)
+                continue;
+            int to = emptySlotFor(gameId) * SLOT_BYTES;
+            for (int i = 0; i < SLOT_BYTES; i += 8)
+                slab.putLong(to + i, old.getLong(slot * SLOT_BYTES + i));
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package Server;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+//How the server is run, read from a properties file and/or key=value arguments (arguments win), e.g.
+//  ServerLauncher server.properties port=12346 tick.millis=5
+//
+//  port            port to listen on (12345)
+//  backlog         connections the OS queues before they are accepted (50)
+//  executor        "cached" for a thread per player as needed, or "fixed:N" for at most N player threads (cached).
+//                  Every game being played holds two threads, so N limits how many games can run at once: use twice the
+//                  number of games to host. The server closes both connections when a game is won, tied or parked, so a
+//                  finished game gives its threads back even if its players keep their windows open. New clients are
+//                  still admitted past the limit, on GameHost's own threads, and their games start as running ones finish
+//  tick.millis     above 0, play moves in batches once per tick (see TickProcessor) (0)
+//  warmup.games    games played in-process before the socket is opened, so the first real game doesn't pay for
+//                  class loading and JIT compilation (2000, 0 to skip)
+//  warmup.only     true to warm up and exit without opening the socket, for building a class data sharing archive (false)
+//
+//There is no transport setting: clients in other processes can only reach a socket, so the server always listens on one.
+//In-process games over LoopbackConnection are what the warm-up and TournamentLauncher run, they need no server.
+public class ServerConfig {
+
+    private final Properties settings = new Properties();
+
+    //the defaults, as listed above
+    public ServerConfig()
+    {
+    }
+
+    public static ServerConfig fromArguments(String[] args) throws IOException
+    {
+        ServerConfig config = new ServerConfig();
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals > 0) {
+                config.settings.setProperty(arg.substring(0, equals).trim(), arg.substring(equals + 1).trim());
+            } else {
+                //a properties file, anything set by an argument before it is kept
+                Properties file = new Properties();
+                try (Reader reader = Files.newBufferedReader(Paths.get(arg), StandardCharsets.UTF_8)) {
+                    file.load(reader);
+                }
+                for (String key : file.stringPropertyNames())
+                    if (!config.settings.containsKey(key))
+                        config.settings.setProperty(key, file.getProperty(key).trim());
+            }
+        }
+        config.newExecutor().shutdown(); //fail now rather than on the first connection if the executor setting is wrong
+        return config;
+    }
+
+    public int getPort()
+    {
+        return getInt("port", 12345);
+    }
+
+    public int getBacklog()
+    {
+        return getInt("backlog", 50);
+    }
+
+    public int getTickMillis()
+    {
+        return getInt("tick.millis", 0);
+    }
+
+    public int getWarmUpGames()
+    {
+        return getInt("warmup.games", 2000);
+    }
+
+    public boolean isWarmUpOnly()
+    {
+        return Boolean.parseBoolean(settings.getProperty("warmup.only", "false"));
+    }
+
+    //the pool the Player threads run on
+    public ExecutorService newExecutor()
+    {
+        String executor = settings.getProperty("executor", "cached");
+        if (executor.equals("cached"))
+            return Executors.newCachedThreadPool();
+        if (executor.startsWith("fixed:"))
+            return Executors.newFixedThreadPool(parse("executor", executor.substring(6)));
+        throw new IllegalArgumentException("executor must be cached or fixed:N, not " + executor);
+    }
+
+    //what the server is running with, for the startup message
+    public String describe()
+    {
+        return String.format("port %d, backlog %d, executor %s, %s", getPort(), getBacklog(),
+                settings.getProperty("executor", "cached"), getTickMillis() > 0 ? getTickMillis() + "ms ticks" : "no ticks");
+    }
+
+    private int getInt(String key, int defaultValue)
+    {
+        String value = settings.getProperty(key);
+        return value == null ? defaultValue : parse(key, value);
+    }
+
+    private static int parse(String key, String value)
+    {
+        try
+        {
+            return Integer.parseInt(value);
+        }
+        catch (NumberFormatException numberFormatException)
+        {
+            throw new IllegalArgumentException(key + " must be a whole number, not " + value);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package Server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.Socket;
+import java.util.Formatter;
+
+//GameConnection over a TCP socket, this is what the Swing clients connect through
+public class SocketConnection implements GameConnection {
+
+    private static final int MAX_LINE_LENGTH = 64; //far longer than any real message, the rest of a longer line is thrown away
+
+    private Socket connection; //connection to client
+    private BufferedReader input; //input from Client
+    private Formatter output; //output to client
+
+    public SocketConnection(Socket socket) throws IOException
+    {
+        connection = socket;
+        //every message is a short line the other side is waiting for, so send it now rather than let Nagle's algorithm
+        //hold it back until the previous one is acknowledged (which with delayed acks adds ~40ms to some moves)
+        connection.setTcpNoDelay(true);
+
+        //we get the clients information here in an input stream
+        input = new BufferedReader(new InputStreamReader(connection.getInputStream()));
+
+        //we send the client information using the outputStream
+        output = new Formatter(connection.getOutputStream());
+    }
+
+    //like BufferedReader.readLine, but a client can't make us buffer a line of any length
+    //only the first MAX_LINE_LENGTH characters are kept, which is enough for the line to be rejected as a move
+    @Override
+    public String readLine() throws IOException
+    {
+        StringBuilder line = new StringBuilder();
+        int character;
+        while ((character = input.read()) != -1) {
+            if (character == '\n')
+                break;
+            if (character != '\r' && line.length() < MAX_LINE_LENGTH)
+                line.append((char) character);
+        }
+
+        if (character == -1 && line.length() == 0)
+            return null; //client has gone
+        return line.toString();
+    }
+
+    //both player threads write to a connection (a player answers its own client, and tells the other client about its move)
+    //so writes are synchronized to stop the two threads interleaving half messages
+    @Override
+    public synchronized void format(String format, Object... args)
+    {
+        output.format(format, args);
+    }
+
+    @Override
+    public synchronized void flush()
+    {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        connection.close();
+    }
+}
@@ -0,0 +1,698 @@
+package Server;
+
+import Logging.EventLog;
+import Solver.PerfectPlayTable;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+//One game of tic-tac-toe between two connected players.
+//This holds the board and the two Player threads and knows nothing about Swing or sockets, so the same game logic runs
+//behind the server window (TicTacToeServer) and fully in-process over LoopbackConnections (Tournament.TournamentRunner).
+public class TicTacToeGame {
+
+    //Altogether We'll have four 5 threads when everything is connected..
+    //Main Thread which sets up the connections
+    //Thread 1 (Manages Client 1s connection and game state)
+    //Thread 2 (Manages client 2s connection and game state)
+    //Client Thread 1 (This is run separately on the client machines, interacting with Thread 1)
+    //Client Thread 2 (This is run separately on the client machine, interacting with Thread 2)
+    //Synchronization happens between Thread 1 and Thread 2 to ensure the game progresses turn by turn.This is done using Lock and Condition
+
+    private String[] board = new String[9];  //tic-tac-toe board
+    private int[] moves = new int[9]; //locations played so far, in order, for the game record
+    private int moveCount;
+    private Player[] players; //array of players
+    private String[] playerNames = {"Player X", "Player O"}; //who is sitting in each seat, used for ratings
+    private int seatedPlayers; //how many players have connected so far
+    private int currentPlayer; //keep track of player with current move
+    private final static int PLAYER_X = 0; //constant for first player
+    private final static int PLAYER_O = 1; //constant for second player
+    private final static String[] MARKS = {"X","O"}; //array of Marks
+    private final static double MESSAGES_PER_SECOND = 4; //sustained rate a client may send moves at, far above one move per turn
+    private final static int MESSAGE_BURST = 8; //moves a client may send back to back
+    private final static double QUERIES_PER_SECOND = 2; //sustained rate for hint and eval, kept apart so asking for hints never costs a move
+    private final static int QUERY_BURST = 4;
+    private final static int MAX_STRIKES = 5; //dropped or malformed messages in a row before the client is disconnected
+    private final static int MOVE_LOG_SAMPLE = 100; //log about one move in this many, moves are by far our most frequent event
+    private final static EventLog LOG = EventLog.get();
+    private final static PerfectPlayTable PERFECT_PLAY = PerfectPlayTable.shared(); //answers hint and eval in constant time
+    private final static AtomicLong NEXT_GAME_ID = new AtomicLong(); //ids start at 1, ParkedGames uses 0 for an empty slot
+    private final long gameId = NEXT_GAME_ID.incrementAndGet(); //sent to both clients so they can resume the game if it is parked
+    private final static SecureRandom RESUME_TOKENS = new SecureRandom();
+    //each player is sent their own, and must give it back to resume their seat, game ids alone are easy to guess
+    private final long[] resumeTokens = {RESUME_TOKENS.nextLong(), RESUME_TOKENS.nextLong()};
+    private ExecutorService runGame; //will run players. As we know, we use ExecuorService to run our Runnables(these are
+    //used to run client threads
+    private Consumer<String> messageDisplay; //where moves and connections are reported, the server window or nowhere at all
+    private List<GameListener> gameListeners = new ArrayList<>(); //told about the result once the game ends
+    private Lock gameLock; //to lock game for synchronization between the 2 player threads
+    private Condition otherPlayerConnected; //to wait for other player to connect
+    private Condition otherPlayerTurn; //to wait for other players turn
+    private Condition otherPlayerGo;
+    private volatile boolean gameOver = false; //per game, several games can be running in the same JVM
+    private ParkedGames parking; //where the game goes if a player leaves before it is over, null to just end it
+    private volatile boolean parked; //a player left and the game is in parking, the other player is sent away
+    private boolean restored; //this game carries on a parked game rather than starting from an empty board
+    private TickProcessor ticks; //plays this game's moves in batches, or null to play each move as it arrives
+    private volatile boolean wantsToPlayAgain = false;
+    private Condition bothPlayersResponded; //both players responses to playing again
+    private volatile boolean validResponse = false;
+    private int rematchResponses;
+
+
+    //set up an empty game, players are run on runGame and anything worth showing is passed to messageDisplay
+    public TicTacToeGame(ExecutorService runGame, Consumer<String> messageDisplay)
+    {
+        this.runGame = runGame;
+        this.messageDisplay = messageDisplay;
+
+        gameLock = new ReentrantLock(); //create lock for game so we can create conditions for each thread. One go, the other stop. The other go, one stop.
+
+        //condition variable for both players being connected. We'll use this to alert both Thread 1 and Thread 2 that both players have connected, so game can start
+        otherPlayerConnected = gameLock.newCondition();
+
+
+        //condition variable for the other player's turn, We'll use this to alert each Thread when it's their go and when one Thread needs to be locked allowing the other to go.
+        otherPlayerTurn = gameLock.newCondition();
+
+
+        //Our client has a board that is from 0-8. We use this board to keep up to date with each client's moves. The client must first send their location to us the server,
+        // we then validate it before sending it back off to the opposite client. We send it to the opposite client so their board also gets updated.
+        for (int i = 0; i < 9; i++) {
+            board[i] = "";
+        }
+
+        //Each player will represent a Thread and client communication
+            players = new Player[2]; //puts 2 Player objects in our players array
+
+        //to store the currentPlayer,
+            currentPlayer = PLAYER_X; //set current player to first player
+    }
+
+
+    // === Player Thread Initialization ===
+    // On connection, a Player object is created to manage communication.
+    // Each Player runs concurrently using ExecutorService, invoking run() automatically.
+    // The first connection plays X, the second plays O.
+    public void addPlayer(GameConnection connection, String playerName)
+    {
+        int number = seatedPlayers++;
+        playerNames[number] = playerName;
+        players[number] = new Player(connection, number);
+        runGame.execute(players[number]);
+    }
+
+    //listeners must be added before the players connect
+    public void addGameListener(GameListener listener)
+    {
+        gameListeners.add(listener);
+    }
+
+    //park this game when a player leaves mid-game instead of abandoning it, must be set before the players connect
+    public void setParking(ParkedGames parking)
+    {
+        this.parking = parking;
+    }
+
+    //play moves in tick mode, must be set before the players connect
+    public void setTickProcessor(TickProcessor ticks)
+    {
+        this.ticks = ticks;
+    }
+
+    //carry on from the moves of a parked game, called before the players are added
+    public void restore(int[] playedMoves)
+    {
+        for (int location : playedMoves) {
+            board[location] = MARKS[moveCount % 2];
+            moves[moveCount++] = location;
+        }
+        currentPlayer = moveCount % 2; //X moved first, so the number of moves says whose turn it is
+        restored = true;
+    }
+
+    public long getGameId()
+    {
+        return gameId;
+    }
+
+    public String getPlayerXName()
+    {
+        return playerNames[PLAYER_X];
+    }
+
+    public String getPlayerOName()
+    {
+        return playerNames[PLAYER_O];
+    }
+
+    //the locations played in this game, X's first move first
+    public int[] getMoves()
+    {
+        gameLock.lock();
+        try
+        {
+            return Arrays.copyOf(moves, moveCount);
+        }
+        finally {
+            gameLock.unlock();
+        }
+    }
+
+
+    //both clients have connected, let player X start the game
+    public void start()
+    {
+        gameLock.lock(); //Once both clients connect we lock
+
+        try
+        {
+            //we currently have Thread1 waiting on a condition to check if the other player has connected, since they have we let them know and then unlock our Main thread
+            players[PLAYER_X].setSuspended(false); //set suspended for player x false (this is our conditions guarded wait so the thread doesn't wake up unexpectedly.)
+            otherPlayerConnected.signal(); //wake up Thread1 Player X
+        }
+
+        finally {
+            //main thread is done, we now begin player X execution from the point where it was waiting otherPlayerConnected.await();
+            gameLock.unlock();
+        }
+    }
+
+    private void displayMessage(final String messageToDisplay)
+    {
+        messageDisplay.accept(messageToDisplay);
+    }
+
+    //a player left before the game was over: store the game off-heap so both players can resume it later,
+    //and send the other player away so neither Player thread nor connection is kept waiting for the game to come back
+    private void park(int leavingPlayer)
+    {
+        int parkedMoves;
+        gameLock.lock();
+        try
+        {
+            if (parking == null || parked || gameOver)
+                return;
+            //under the same lock playMove holds, so the moves stored are never half a move and a game that has just been
+            //won is reported or parked, never both
+            parked = true;
+            parkedMoves = moveCount;
+            parking.park(gameId, getMoves(), resumeTokens, System.currentTimeMillis());
+            otherPlayerTurn.signalAll(); //a player waiting for its turn won't get one now
+        }
+        finally {
+            gameLock.unlock();
+        }
+
+        displayMessage("\nGame " + gameId + " parked after " + parkedMoves + " moves");
+        LOG.log(EventLog.Level.INFO, "game-parked", "game", gameId, "moves", parkedMoves);
+
+        Player otherPlayer = players[1 - leavingPlayer];
+        if (otherPlayer != null)
+            otherPlayer.opponentLeft();
+    }
+
+    //let everyone interested know how the game ended
+    private void reportResult(GameResult result)
+    {
+        for (GameListener listener : gameListeners)
+            listener.gameOver(this, result);
+    }
+
+    //the move-at-a-time path: wait for our turn, play the move and send the replies straight away
+    //returns true if the move ended the game
+    public boolean validateAndMove(int location, int player)
+    {
+        gameLock.lock(); //we always lock before a condition to not allow for race conditions
+        try
+        {
+            //if a player thread tried to access this without being current player its told to wait
+            // Ensures only the current player can access game logic at a time
+            while (player != currentPlayer && !gameOver && !parked)
+            {
+                try
+                {
+                    // === Turn-Based Synchronization ===
+                    // Wait until it's the current player's turn
+                    otherPlayerTurn.await();
+                }
+                catch (InterruptedException exception)
+                {
+                    exception.printStackTrace();
+                }
+            }
+
+            boolean finished = playMove(player, location);
+
+            //flush so it doesn't wait in the buffer, the other player first as they are the one waiting to see the move.
+            //Still holding the lock, so the other player's thread can't write its own move to these connections until ours has gone
+            players[1 - player].connection.flush();
+            players[player].connection.flush();
+
+            otherPlayerTurn.signal(); //tell the other player they can go now, playMove has already set current player to them
+            return finished;
+        }
+        finally {
+            gameLock.unlock(); //always call unlock after a condition so that other thread can gain access
+        }
+    }
+
+    //The rules of a move, shared by validateAndMove and tick mode (TickProcessor): check it, put it on the board, check for a
+    //win or a tie and write the replies to both players. Nothing is flushed, the caller decides when the replies go out.
+    //It all happens under gameLock, the same lock park takes, so a move is played whole or not at all before a game is parked.
+    //Returns true if the game is over
+    boolean playMove(int player, int location)
+    {
+        gameLock.lock();
+        try
+        {
+            return playMoveLocked(player, location);
+        }
+        finally {
+            gameLock.unlock();
+        }
+    }
+
+    private boolean playMoveLocked(int player, int location)
+    {
+        if (gameOver || parked)
+            return true;
+
+        Player mover = players[player];
+        if (player != currentPlayer || isOccupied(location)) {
+            mover.connection.format("Invalid move, try again\n");
+            return false;
+        }
+
+        board[location] = MARKS[player]; //set move on board
+        moves[moveCount++] = location;
+
+        //currentPlayer is now other player so that they can go now and not get stuck on while player!= current player
+        currentPlayer = (currentPlayer + 1) % 2;
+        Player opponent = players[currentPlayer];
+
+        //check's if the move made is a winning move or results in a tie game
+        if (checkWin(MARKS[player])) {
+            //record the result before telling the clients, so it is in place by the time they hear the game is over
+            reportResult(player == PLAYER_X ? GameResult.X_WON : GameResult.O_WON);
+
+            mover.sendBoard();
+            mover.connection.format("Congratulations you have won %d\n", location);
+            opponent.otherPlayerWon(location); //let other player know they lost
+            endGame();
+            return true;
+        }
+        if (isBoardFull()) {
+            reportResult(GameResult.DRAW);
+
+            mover.sendBoard();
+            mover.connection.format("Its a tie!\n");
+            opponent.otherPlayerDrew(); //let other player know that it was a tie
+            endGame();
+            return true;
+        }
+
+        //let the other player know the move so they can update it on their board, and the mover that it was valid
+        opponent.otherPlayerMoved(location);
+        mover.connection.format("Valid move.\n");
+        displayMessage("\nlocation: " + location); //displays the location to our main server application
+        return false;
+    }
+
+    //Called holding gameLock by the move that ends the game. Both players' last messages go out before gameOver can be seen,
+    //so a Player thread that leaves its loop on gameOver can't close its connection ahead of them. Then both connections
+    //are closed: the Player threads finish (a blocked read sees the end of the stream) and give back their pool threads,
+    //however long the clients keep their windows open, and in tick mode as well, where nothing else ends them.
+    private void endGame()
+    {
+        for (Player player : players)
+            player.connection.flush();
+        gameOver = true;
+        for (Player player : players) {
+            try
+            {
+                player.connection.close();
+            }
+            catch (IOException ioException)
+            {
+                ioException.printStackTrace();
+            }
+        }
+    }
+
+    //where the replies to player go, for the tick processor to flush
+    GameConnection connectionOf(int player)
+    {
+        return players[player].connection;
+    }
+
+    //the board the way the perfect play table reads it, call holding gameLock so a move isn't half seen
+    private char[] boardSquares()
+    {
+        char[] squares = new char[9];
+        for (int i = 0; i < 9; i++)
+            squares[i] = board[i].isEmpty() ? ' ' : board[i].charAt(0);
+        return squares;
+    }
+
+    //the board as the client is sent it at the end of a game, one character per square and '-' for an empty square
+    private String boardState()
+    {
+        char[] squares = new char[9];
+        for (int i = 0; i < 9; i++)
+            squares[i] = board[i].isEmpty() ? '-' : board[i].charAt(0);
+        return new String(squares);
+    }
+
+    //checks if a location a client has picked on the board has already been occupied
+    public boolean isOccupied(int location)
+    {
+        if(board[location].equals(MARKS[PLAYER_X]) || board[location].equals(MARKS[PLAYER_O]))
+        {
+            return true; //location is occupied
+        }
+        return false;
+    }
+
+
+    // === Game End Checks ===
+
+    //logic that checks whether a move on the board correlates to a win for that client
+    private boolean checkWin(String mark) {
+        // Rows and columns
+        for (int i = 0; i < 3; i++) {
+            if (board[i*3].equals(mark) &&
+                    board[i*3+1].equals(mark) &&
+                    board[i*3+2].equals(mark)) return true;
+            if (board[i].equals(mark) &&
+                    board[i+3].equals(mark) &&
+                    board[i+6].equals(mark)) return true;
+        }
+
+        // Diagonals
+        if (board[0].equals(mark) &&
+                board[4].equals(mark) &&
+                board[8].equals(mark)) return true;
+        if (board[2].equals(mark) &&
+                board[4].equals(mark) &&
+                board[6].equals(mark)) return true;
+
+        return false;
+    }
+
+    //checks for a tie game
+    private boolean isBoardFull() {
+        for (String s : board)
+            if (s.equals("")) return false;
+        return true;
+    }
+
+
+    private class Player implements Runnable
+    {
+        private GameConnection connection; //connection to client, a socket or an in-process loopback
+        private int playerNumber; //tracks which player this is
+        private String mark; //mark for this player
+        private boolean suspended = true; //whether thread is suspended;
+        private TokenBucket messageLimit = new TokenBucket(MESSAGES_PER_SECOND, MESSAGE_BURST); //how fast this client may send moves
+        private TokenBucket queryLimit = new TokenBucket(QUERIES_PER_SECOND, QUERY_BURST); //how fast it may ask for hints and evals
+        private int strikes; //dropped or malformed messages in a row
+
+
+        //This will represent Thread1 - Client1 communication
+        //and Thread2 - Client2 communication.
+        public Player(GameConnection connection, int number)
+        {
+            bothPlayersResponded = gameLock.newCondition();
+            playerNumber = number;
+            mark = MARKS[playerNumber];
+            this.connection = connection;
+        }
+
+        public void otherPlayerMoved(int location)
+        {
+            //send message to client
+            connection.format("Opponent moved\n");
+            connection.format("%d\n", location); //send location of move to client so they can mark it on their board
+        }
+
+        //the final board, so the client shows exactly what the server has instead of working it out
+        public void sendBoard()
+        {
+            connection.format("Board %s\n", boardState());
+        }
+
+        //the other player has gone and the game is parked, closing the connection ends this player's thread too
+        public void opponentLeft()
+        {
+            connection.format("Opponent disconnected, game %d parked\n", gameId);
+            connection.flush();
+            try
+            {
+                connection.close();
+            }
+            catch (IOException ioException)
+            {
+                ioException.printStackTrace();
+            }
+        }
+
+        public void otherPlayerWon(int location)
+        {
+            sendBoard();
+            connection.format("Opponent won %d\n", location);
+        }
+
+        public void otherPlayerDrew()
+        {
+            sendBoard();
+            connection.format("It's a tie game\n");
+        }
+
+        /**
+         * Entry point for the Player thread.
+         * Manages communication with the client, including receiving moves,
+         * validating game state, and coordinating with the opponent thread.
+         * Handles input parsing, win/draw detection, and thread synchronization.
+         */
+        public void run()
+        {
+
+            try {
+                    //send the corresponding client their mark
+                    displayMessage("Player " + mark + " connected\n");
+
+                    connection.format("%s\n", mark); //send player's mark so either "X" or "O"
+                    //what to ask for if the client has to resume this game, the token proves the seat is theirs
+                    connection.format("Game %d %016x\n", gameId, resumeTokens[playerNumber]);
+                    connection.flush(); //force it to the client so it receives it now
+
+                /**
+                 * Manages Player X's initial connection phase.
+                 * Uses guarded wait to block execution until Player O connects.
+                 * Prevents spurious wakeups and ensures synchronized game start.
+                 */
+                waitForSecondPlayer();
+
+                        while (!gameOver) {
+                            //after each player has their turn, it will restart from here for the new player
+
+                            //
+                            String line = connection.readLine();
+                            if (line == null) {
+                                park(playerNumber); //the client went away, keep the game if it isn't over
+                                break;
+                            }
+
+                            // === Hint And Evaluation Commands ===
+                            // Looked up in the solved perfect play table, so they cost no search however many players ask.
+                            // They have their own rate limit, one over it is answered "later" so the client knows to wait.
+                            // That isn't a strike: a player pressing Hint impatiently is not flooding, and the answer is cheap
+                            String command = line.trim();
+                            if (command.equalsIgnoreCase("hint") || command.equalsIgnoreCase("eval")) {
+                                if (!queryLimit.tryAcquire()) {
+                                    connection.format("%s later\n", command.equalsIgnoreCase("hint") ? "Hint" : "Eval");
+                                    connection.flush();
+                                } else if (command.equalsIgnoreCase("hint")) {
+                                    sendHint();
+                                } else {
+                                    sendEvaluation();
+                                }
+                                continue;
+                            }
+
+                            // === Abuse Protection ===
+                            // A client sends one move per turn, anything much faster than that is flooding.
+                            // A move over the limit is not played, the client is told to slow down and take its move back,
+                            // and too many dropped or malformed messages in a row disconnects the client so it can't keep
+                            // this thread busy at everyone else's expense.
+                            if (!messageLimit.tryAcquire()) {
+                                if (++strikes > MAX_STRIKES) {
+                                    disconnect("Too many messages, disconnecting");
+                                    break;
+                                }
+                                connection.format("Slow down, try again\n");
+                                connection.flush();
+                                continue;
+                            }
+
+                            //get the clients move location by using our inputStream
+                            //the program maintains board locations as numbers from 0 to 8 (0 - 2 for the first row, 3 - 5 for the second row and 6 - 8 for the third row)
+                            //anything else, not a number or off the board, is rejected here without throwing and never touches the board
+                            int location = MoveParser.parseLocation(line);
+                            if (location == MoveParser.INVALID) {
+                                if (++strikes > MAX_STRIKES) {
+                                    disconnect("Too many invalid moves, disconnecting");
+                                    break;
+                                }
+                                connection.format("Invalid move, try again\n");
+                                connection.flush();
+                                continue;
+                            }
+                            strikes = 0; //a well formed move, the client is behaving again
+                            LOG.logSampled(EventLog.Level.INFO, MOVE_LOG_SAMPLE, "move", "player", playerNumber, "location", location);
+
+
+                            // === Playing The Move ===
+                            // In tick mode the move joins the next batch and the tick thread sends the replies,
+                            // otherwise it is played here as soon as it is our turn
+                            if (ticks != null) {
+                                ticks.submit(TicTacToeGame.this, playerNumber, location);
+                                continue;
+                            }
+                            if (validateAndMove(location, playerNumber))
+                                break; //the game is over
+                        }
+            } catch (IOException e) {
+                // Helps me recognize that this is a network I/O failure, likely due to client disconnection or stream interruption
+                // Once the game is parked or over our connection is closed on purpose, so that one is expected
+                if (!parked && !gameOver)
+                    throw new RuntimeException(e);
+            } finally {
+
+                try {
+                    LOG.log(EventLog.Level.DEBUG, "connection-closed", "player", playerNumber);
+                    connection.close(); //close connection to client
+                }
+
+                catch (IOException ioException)
+                {
+                    ioException.printStackTrace();
+                    System.exit(1);
+                }
+            }
+        }
+
+        //"Hint 4" with the best square to play, or "Hint none" when it isn't this player's turn
+        //under gameLock, the board can't change underneath us and the opponent's move can't be writing to our connection
+        private void sendHint()
+        {
+            gameLock.lock();
+            try
+            {
+                int bestMove = playerNumber == currentPlayer ? PERFECT_PLAY.bestMove(boardSquares()) : -1;
+                if (bestMove < 0)
+                    connection.format("Hint none\n");
+                else
+                    connection.format("Hint %d\n", bestMove);
+                connection.flush();
+            }
+            finally {
+                gameLock.unlock();
+            }
+        }
+
+        //"Eval win", "Eval draw" or "Eval loss": how the game ends for this player if both sides play perfectly from here
+        private void sendEvaluation()
+        {
+            gameLock.lock();
+            try
+            {
+                int result = PERFECT_PLAY.evaluate(boardSquares()); //for the side to move
+                if (playerNumber != currentPlayer)
+                    result = -result;
+                connection.format("Eval %s\n", result == PerfectPlayTable.WIN ? "win" : result == PerfectPlayTable.LOSS ? "loss" : "draw");
+                connection.flush();
+            }
+            finally {
+                gameLock.unlock();
+            }
+        }
+
+        //tell the client why and stop reading from it, the finally block in run closes the connection
+        private void disconnect(String reason)
+        {
+            displayMessage("\nPlayer " + mark + " disconnected: " + reason);
+            LOG.log(EventLog.Level.WARN, "client-disconnected", "player", playerNumber, "reason", reason);
+            connection.format("%s\n", reason);
+            connection.flush();
+        }
+
+        private void waitForSecondPlayer()
+        {
+            if (restored) {
+                //both players came back to a parked game together, show them the board and carry on with whoever's turn it was
+                if (playerNumber == PLAYER_X)
+                    awaitStart(); //O is seated by then, so whoever moves first has an opponent to tell
+                sendBoard();
+                connection.format(playerNumber == currentPlayer ? "Resumed, your move.\n" : "Resumed, please wait\n");
+                connection.flush();
+                return;
+            }
+
+            if (playerNumber == PLAYER_X) {
+                connection.format("%s\n%s", "Player X connected", "Waiting for another player\n");
+                connection.flush(); //flush output
+
+                awaitStart();
+
+                // When Player O connects, the suspended Player X thread resumes and starts the game.
+                connection.format("Other player connected. Your move.\n");
+                connection.flush();
+            } else
+            {
+                // Sent to Player O upon connection; informs them to wait until Player X starts.
+                connection.format("Player 0 connected, please wait\n");
+                connection.flush(); //flush output
+            }
+
+        }
+
+        //player X waits here until start() says the other player has connected
+        private void awaitStart()
+        {
+            gameLock.lock(); //lock thread on client 1 player "X"
+
+            try {
+                //lock conditions can sometimes wake up unexpectedly, even if no thread explicitly signals them, this is called a spurious wakeup.
+                // Guarded wait protects against spurious wakeups disrupting game flow
+                while (suspended) {
+                    otherPlayerConnected.await(); //as client1 were pausing here and waiting on otherPlayerConnected.signify() or signifyAll() to be called to tell us the
+                    // other player has connected, then we can resume execution.
+                    //when client2 calls signifyAll or signify then this client1 will wake up again and resume execution. so it will go from after the finally block
+                }
+            } catch (InterruptedException exception) {
+                exception.printStackTrace();
+            } finally {
+                gameLock.unlock(); //go back to main thread waiting for player 2 to connect
+            }
+        }
+
+        //set whether or not thread is suspended
+        public void setSuspended(boolean status)
+        {
+            suspended = status;
+        }
+
+    }
+
+}
@@ -0,0 +1,133 @@
+package Server;
+
+import Logging.EventLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Tick mode: moves from every game are collected and played together once per tick, instead of each move being played
+//on its player's thread the moment it arrives.
+//
+//Per move that saves waiting on the turn condition and signalling it, and the flushes: a tick plays every waiting move (across every
+//game) in one pass on one thread, then flushes each connection it wrote to once, however many replies it has queued.
+//With thousands of bot or casual games that is far fewer system calls and context switches per move, at the cost of
+//each move waiting up to one tick before it is played.
+//
+//Player threads still read, rate limit and parse their client's lines and answer hint and eval themselves,
+//they only hand over well formed moves. A move played out of turn is rejected rather than held until it is the player's turn.
+public class TickProcessor {
+
+    private static final EventLog LOG = EventLog.get();
+
+    private final long tickNanos;
+    private final Lock pendingLock = new ReentrantLock(); //guards pending, player threads add to it and the tick thread swaps it out
+    private List<PendingMove> pending = new ArrayList<>();
+    private List<PendingMove> playing = new ArrayList<>(); //only touched by the tick thread
+    private final Set<GameConnection> written = Collections.newSetFromMap(new IdentityHashMap<>()); //connections to flush this tick
+    private final Thread tickThread;
+    private volatile boolean running = true;
+
+    public TickProcessor(long tickMillis)
+    {
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, tickMillis));
+        tickThread = new Thread(this::run, "move-ticker");
+        tickThread.setDaemon(true);
+        tickThread.start();
+    }
+
+    //called on a player thread with a well formed move, it is played on the next tick
+    public void submit(TicTacToeGame game, int player, int location)
+    {
+        PendingMove move = new PendingMove(game, player, location);
+        pendingLock.lock();
+        try
+        {
+            pending.add(move);
+        }
+        finally {
+            pendingLock.unlock();
+        }
+    }
+
+    public void shutdown()
+    {
+        running = false;
+        LockSupport.unpark(tickThread);
+    }
+
+    private void run()
+    {
+        long nextTick = System.nanoTime() + tickNanos;
+        while (running) {
+            long now = System.nanoTime();
+            if (now < nextTick) {
+                LockSupport.parkNanos(nextTick - now);
+                continue;
+            }
+            //keep to the schedule, but don't try to catch up on ticks missed while a long one ran
+            nextTick = Math.max(nextTick + tickNanos, now);
+
+            try
+            {
+                tick();
+            }
+            catch (RuntimeException exception)
+            {
+                //one bad game mustn't stop every other game's moves
+                exception.printStackTrace();
+                LOG.log(EventLog.Level.ERROR, "tick-failed", "moves", playing.size(), "reason", String.valueOf(exception));
+                playing.clear();
+                written.clear();
+            }
+        }
+    }
+
+    //play every move that arrived since the last tick, then send all the replies
+    private void tick()
+    {
+        pendingLock.lock();
+        try
+        {
+            List<PendingMove> arrived = pending;
+            pending = playing;
+            playing = arrived;
+        }
+        finally {
+            pendingLock.unlock();
+        }
+        if (playing.isEmpty())
+            return;
+
+        for (PendingMove move : playing) {
+            move.game.playMove(move.player, move.location);
+            //the move writes to both players, whether it was valid or not only the mover hears back
+            written.add(move.game.connectionOf(move.player));
+            written.add(move.game.connectionOf(1 - move.player));
+        }
+        for (GameConnection connection : written)
+            connection.flush();
+
+        playing.clear();
+        written.clear();
+    }
+
+    private static final class PendingMove {
+        private final TicTacToeGame game;
+        private final int player;
+        private final int location;
+
+        private PendingMove(TicTacToeGame game, int player, int location)
+        {
+            this.game = game;
+            this.player = player;
+            this.location = location;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package Server;
+
+//Per-connection rate limit. The bucket holds up to burst tokens and refills at ratePerSecond, each message takes one token.
+//Only ever used by the one Player thread reading its connection, so it needs no locking.
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double burst;
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, int burst)
+    {
+        this.ratePerNano = ratePerSecond / 1_000_000_000.0;
+        this.burst = burst;
+        this.tokens = burst; //a new connection starts with a full bucket
+        this.lastRefill = System.nanoTime();
+    }
+
+    //take a token if there is one, false means the message is over the limit
+    public boolean tryAcquire()
+    {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+
+        if (tokens < 1)
+            return false;
+        tokens--;
+        return true;
+    }
+}
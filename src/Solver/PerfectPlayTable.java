@@ -0,0 +1,301 @@
+package Solver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+//The value and best moves of every legal 3x3 position, solved once so a hint or a computer reply costs a table lookup instead of a search.
+//
+//There are 5,478 legal positions but only 765 once rotations and reflections of the board are treated as the same position,
+//so only those 765 canonical positions are stored: the position code, the result for the side to move, and the best moves.
+//A lookup turns the board into its canonical form (trying all 8 symmetries of a 9 square board), binary searches 765 codes,
+//and maps the best move back onto the real board. That is a fixed amount of work whatever the position.
+//
+//Boards are char[9] with ' ' for empty and 'X' or 'O' for taken squares, numbered 0-8 like the server's board.
+//X always moves first, so the side to move follows from the number of marks.
+public final class PerfectPlayTable {
+
+    public static final int WIN = 1; //the side to move wins with perfect play
+    public static final int DRAW = 0;
+    public static final int LOSS = -1;
+
+    private static final int MAGIC = 0x54545450; //"TTTP"
+    private static final int ENTRY_BYTES = 7; //int code, byte result, short best move mask
+    private static final String FILE_PROPERTY = "tictactoe.perfectplay"; //table file to load, generated in memory when there isn't one
+
+    //every symmetry of the board as a map from square to the square it moves to
+    private static final int[][] SYMMETRIES = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8}, //identity
+            {2, 5, 8, 1, 4, 7, 0, 3, 6}, //rotate 90
+            {8, 7, 6, 5, 4, 3, 2, 1, 0}, //rotate 180
+            {6, 3, 0, 7, 4, 1, 8, 5, 2}, //rotate 270
+            {2, 1, 0, 5, 4, 3, 8, 7, 6}, //mirror left to right
+            {6, 7, 8, 3, 4, 5, 0, 1, 2}, //mirror top to bottom
+            {0, 3, 6, 1, 4, 7, 2, 5, 8}, //mirror on the main diagonal
+            {8, 5, 2, 7, 4, 1, 6, 3, 0}  //mirror on the other diagonal
+    };
+    private static final int[][] LINES = {
+            {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+            {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+            {0, 4, 8}, {2, 4, 6}
+    };
+    private static final int[] POWERS_OF_THREE = {1, 3, 9, 27, 81, 243, 729, 2187, 6561};
+
+    private static volatile PerfectPlayTable shared;
+
+    private final int[] codes; //canonical position codes, sorted
+    private final byte[] results; //result for the side to move
+    private final short[] bestMoves; //bit i set if square i (of the canonical board) is a best move
+
+    private PerfectPlayTable(int[] codes, byte[] results, short[] bestMoves)
+    {
+        this.codes = codes;
+        this.results = results;
+        this.bestMoves = bestMoves;
+    }
+
+    //the table used by the server and the bots, loaded from the file named by -Dtictactoe.perfectplay or solved on first use
+    public static PerfectPlayTable shared()
+    {
+        PerfectPlayTable table = shared;
+        if (table == null) {
+            synchronized (PerfectPlayTable.class) {
+                if (shared == null) {
+                    String file = System.getProperty(FILE_PROPERTY);
+                    try
+                    {
+                        shared = file != null ? load(Paths.get(file)) : generate();
+                    }
+                    catch (IOException ioException)
+                    {
+                        ioException.printStackTrace(); //solving takes milliseconds, so fall back rather than fail
+                        shared = generate();
+                    }
+                }
+                table = shared;
+            }
+        }
+        return table;
+    }
+
+    // === Lookups ===
+
+    //WIN, DRAW or LOSS for the side to move. Finished boards are in the table too: a won board is a LOSS for the side
+    //to move (its opponent has just won) and a full board with no winner is a DRAW. Only a board no game can reach gives DRAW
+    public int evaluate(char[] board)
+    {
+        int index = indexOf(canonicalCode(board));
+        return index < 0 ? DRAW : results[index];
+    }
+
+    //a best square for the side to move, or -1 if the game is already over
+    public int bestMove(char[] board)
+    {
+        int code = encode(board);
+        int symmetry = 0;
+        int canonical = code;
+        for (int s = 1; s < SYMMETRIES.length; s++) {
+            int transformed = transform(code, s);
+            if (transformed < canonical) {
+                canonical = transformed;
+                symmetry = s;
+            }
+        }
+
+        int index = indexOf(canonical);
+        if (index < 0 || bestMoves[index] == 0)
+            return -1;
+
+        //the table's move is on the canonical board, find the square it came from on the real one
+        int canonicalSquare = Integer.numberOfTrailingZeros(bestMoves[index]);
+        int[] map = SYMMETRIES[symmetry];
+        for (int square = 0; square < 9; square++)
+            if (map[square] == canonicalSquare) return square;
+        return -1; //unreachable, every symmetry is a permutation
+    }
+
+    public int size()
+    {
+        return codes.length;
+    }
+
+    private int indexOf(int canonicalCode)
+    {
+        int index = Arrays.binarySearch(codes, canonicalCode);
+        return index < 0 ? -1 : index;
+    }
+
+    // === Position Codes ===
+
+    //each square is a base 3 digit: 0 empty, 1 X, 2 O
+    static int encode(char[] board)
+    {
+        int code = 0;
+        for (int i = 0; i < 9; i++)
+            code += POWERS_OF_THREE[i] * (board[i] == 'X' ? 1 : board[i] == 'O' ? 2 : 0);
+        return code;
+    }
+
+    private static int square(int code, int square)
+    {
+        return code / POWERS_OF_THREE[square] % 3;
+    }
+
+    //the code of the board after moving every square through symmetry s
+    private static int transform(int code, int symmetry)
+    {
+        int[] map = SYMMETRIES[symmetry];
+        int transformed = 0;
+        for (int i = 0; i < 9; i++)
+            transformed += POWERS_OF_THREE[map[i]] * square(code, i);
+        return transformed;
+    }
+
+    static int canonicalCode(char[] board)
+    {
+        return canonical(encode(board));
+    }
+
+    private static int canonical(int code)
+    {
+        int smallest = code;
+        for (int s = 1; s < SYMMETRIES.length; s++)
+            smallest = Math.min(smallest, transform(code, s));
+        return smallest;
+    }
+
+    // === Solving ===
+
+    //solve every position reachable from the empty board
+    public static PerfectPlayTable generate()
+    {
+        Map<Integer, int[]> solved = new HashMap<>(); //canonical code -> {score, best move mask}
+        solve(0, 1, solved);
+
+        int[] codes = new int[solved.size()];
+        int count = 0;
+        for (int code : solved.keySet())
+            codes[count++] = code;
+        Arrays.sort(codes);
+
+        byte[] results = new byte[codes.length];
+        short[] bestMoves = new short[codes.length];
+        for (int i = 0; i < codes.length; i++) {
+            int[] entry = solved.get(codes[i]);
+            results[i] = (byte) Integer.signum(entry[0]);
+            bestMoves[i] = (short) entry[1];
+        }
+        return new PerfectPlayTable(codes, results, bestMoves);
+    }
+
+    //negamax score for the side to move (mover is 1 for X, 2 for O): a game won when n marks are on the board scores 10 - n,
+    //lost -(10 - n), drawn 0, so a best move wins as fast as possible or loses as slowly as possible.
+    //Every canonical position, finished or not, is solved only once
+    private static int solve(int code, int mover, Map<Integer, int[]> solved)
+    {
+        int canonical = canonical(code);
+        int[] known = solved.get(canonical);
+        if (known != null)
+            return known[0];
+
+        int opponent = 3 - mover;
+
+        //a finished game: the opponent has just won, or the board is full. There are no moves to store
+        if (wins(code, opponent) || movesPlayed(code) == 9) {
+            int score = wins(code, opponent) ? -(10 - movesPlayed(code)) : 0;
+            solved.put(canonical, new int[] {score, 0});
+            return score;
+        }
+
+        int best = Integer.MIN_VALUE;
+        int bestMask = 0;
+
+        for (int square = 0; square < 9; square++) {
+            if (square(code, square) != 0)
+                continue;
+
+            int score = -solve(code + POWERS_OF_THREE[square] * mover, opponent, solved);
+            if (score > best) {
+                best = score;
+                bestMask = 0;
+            }
+            if (score == best)
+                bestMask |= 1 << square;
+        }
+
+        //best moves are stored for the canonical board, move the mask onto it
+        int symmetry = 0;
+        for (int s = 0; s < SYMMETRIES.length; s++)
+            if (transform(code, s) == canonical) {
+                symmetry = s;
+                break;
+            }
+        int canonicalMask = 0;
+        for (int square = 0; square < 9; square++)
+            if ((bestMask & (1 << square)) != 0)
+                canonicalMask |= 1 << SYMMETRIES[symmetry][square];
+
+        solved.put(canonical, new int[] {best, canonicalMask});
+        return best;
+    }
+
+    private static boolean wins(int code, int mark)
+    {
+        for (int[] line : LINES)
+            if (square(code, line[0]) == mark && square(code, line[1]) == mark && square(code, line[2]) == mark)
+                return true;
+        return false;
+    }
+
+    private static int movesPlayed(int code)
+    {
+        int moves = 0;
+        for (int i = 0; i < 9; i++)
+            if (square(code, i) != 0) moves++;
+        return moves;
+    }
+
+    // === Table File ===
+
+    //magic, entry count, then per entry: int code, byte result, short best move mask. About 5KB
+    public void write(Path file) throws IOException
+    {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + codes.length * ENTRY_BYTES);
+        buffer.putInt(MAGIC).putInt(codes.length);
+        for (int i = 0; i < codes.length; i++)
+            buffer.putInt(codes[i]).put(results[i]).putShort(bestMoves[i]);
+        Files.write(file, buffer.array());
+    }
+
+    //memory map a table file written by write
+    public static PerfectPlayTable load(Path file) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != MAGIC)
+                throw new IOException(file + " is not a perfect play table");
+
+            int count = buffer.getInt();
+            if (buffer.remaining() != count * ENTRY_BYTES)
+                throw new IOException(file + " is truncated");
+
+            int[] codes = new int[count];
+            byte[] results = new byte[count];
+            short[] bestMoves = new short[count];
+            for (int i = 0; i < count; i++) {
+                codes[i] = buffer.getInt();
+                results[i] = buffer.get();
+                bestMoves[i] = buffer.getShort();
+            }
+            return new PerfectPlayTable(codes, results, bestMoves);
+        }
+    }
+}
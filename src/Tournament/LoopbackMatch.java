@@ -0,0 +1,100 @@
+package Tournament;
+
+import Server.GameConnection;
+import Server.GameListener;
+import Server.GameResult;
+import Server.LoopbackConnection;
+import Server.TicTacToeGame;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+//Plays single games between two strategies against a real TicTacToeGame over LoopbackConnections.
+//The calling thread acts as both clients: it sends each move the way TicTacToeClient.sendClickedSquare does and reads the
+//server's replies with the same messages TicTacToeClient.processMessage understands, so every game also exercises the server protocol.
+public class LoopbackMatch {
+
+    private static final char[] MARKS = {'X', 'O'};
+    private static final Consumer<String> NO_DISPLAY = message -> { }; //nobody is watching tournament games
+
+    private final ExecutorService runGame; //runs the server side Player threads
+    private final List<GameListener> gameListeners; //told about every result, e.g. to rate the strategies or record the games
+
+    public LoopbackMatch(ExecutorService runGame, List<GameListener> gameListeners)
+    {
+        this.runGame = runGame;
+        this.gameListeners = gameListeners;
+    }
+
+    public GameResult play(Strategy playerX, Strategy playerO) throws IOException
+    {
+        TicTacToeGame game = new TicTacToeGame(runGame, NO_DISPLAY);
+        for (GameListener listener : gameListeners)
+            game.addGameListener(listener);
+        GameConnection[] clients = new GameConnection[2];
+        Strategy[] strategies = {playerX, playerO};
+
+        try {
+            //connect X then O, exactly like two clients reaching the server socket
+            for (int i = 0; i < clients.length; i++) {
+                LoopbackConnection[] ends = LoopbackConnection.pair();
+                game.addPlayer(ends[0], strategies[i].getName());
+                clients[i] = ends[1];
+            }
+            game.start();
+
+            char[] board = new char[9];
+            Arrays.fill(board, ' ');
+            int turn = 0;
+
+            while (true) {
+                GameConnection mover = clients[turn];
+                GameConnection opponent = clients[1 - turn];
+
+                int location = strategies[turn].chooseMove(board, MARKS[turn]);
+                if (location < 0 || location >= board.length || board[location] != ' ')
+                    throw new IllegalStateException(strategies[turn].getName() + " chose square " + location + " which is not free");
+
+                mover.format("%d\n", location);
+                mover.flush();
+                board[location] = MARKS[turn];
+
+                String reply = readUntil(mover, "Valid move.", "Invalid move", "Congratulations you have won", "Its a tie!");
+                if (reply.startsWith("Congratulations")) {
+                    readUntil(opponent, "Opponent won");
+                    return turn == 0 ? GameResult.X_WON : GameResult.O_WON;
+                }
+                if (reply.startsWith("Its a tie")) {
+                    readUntil(opponent, "It's a tie game");
+                    return GameResult.DRAW;
+                }
+                if (reply.startsWith("Invalid move"))
+                    throw new IllegalStateException("Server rejected square " + location + " from " + strategies[turn].getName());
+
+                //the opponent is told about the move and gets the location on the following line
+                readUntil(opponent, "Opponent moved");
+                readUntil(opponent, Integer.toString(location));
+                turn = 1 - turn;
+            }
+        } finally {
+            //closing our ends lets any Player thread still waiting for a line see the end of the stream and finish
+            for (GameConnection client : clients)
+                if (client != null)
+                    client.close();
+        }
+    }
+
+    //read lines until one starts with any of the expected prefixes, skipping the greetings and status lines in between
+    private static String readUntil(GameConnection connection, String... expected) throws IOException
+    {
+        String line;
+        while ((line = connection.readLine()) != null) {
+            for (String prefix : expected)
+                if (line.startsWith(prefix)) return line;
+        }
+        throw new IOException("Server closed the connection while waiting for " + Arrays.toString(expected));
+    }
+}
@@ -0,0 +1,133 @@
+package Tournament;
+
+import Solver.PerfectPlayTable;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+//The built in strategies, looked up by name from the tournament launcher
+public final class Strategies {
+
+    //every line that wins the game, rows then columns then diagonals
+    static final int[][] LINES = {
+            {0, 1, 2}, {3, 4, 5}, {6, 7, 8},
+            {0, 3, 6}, {1, 4, 7}, {2, 5, 8},
+            {0, 4, 8}, {2, 4, 6}
+    };
+
+    private static final int[] PREFERRED_SQUARES = {4, 0, 2, 6, 8, 1, 3, 5, 7}; //centre, then corners, then edges
+
+    private Strategies()
+    {
+    }
+
+    public static Strategy byName(String name)
+    {
+        switch (name.toLowerCase()) {
+            case "random":
+                return new RandomStrategy();
+            case "first":
+                return new FirstEmptyStrategy();
+            case "greedy":
+                return new GreedyStrategy();
+            case "perfect":
+                return new PerfectStrategy();
+            default:
+                throw new IllegalArgumentException("Unknown strategy " + name + " (expected random, first, greedy or perfect)");
+        }
+    }
+
+    //plays any empty square
+    static class RandomStrategy implements Strategy {
+        public String getName()
+        {
+            return "random";
+        }
+
+        public int chooseMove(char[] board, char mark)
+        {
+            return randomEmptySquare(board);
+        }
+    }
+
+    //plays the lowest numbered empty square
+    static class FirstEmptyStrategy implements Strategy {
+        public String getName()
+        {
+            return "first";
+        }
+
+        public int chooseMove(char[] board, char mark)
+        {
+            for (int i = 0; i < board.length; i++)
+                if (board[i] == ' ') return i;
+            throw new IllegalStateException("No empty square left");
+        }
+    }
+
+    //wins if it can, blocks the opponent if it has to, otherwise takes the best free square
+    static class GreedyStrategy implements Strategy {
+        public String getName()
+        {
+            return "greedy";
+        }
+
+        public int chooseMove(char[] board, char mark)
+        {
+            char opponent = mark == 'X' ? 'O' : 'X';
+
+            int square = completingSquare(board, mark);
+            if (square >= 0) return square;
+
+            square = completingSquare(board, opponent);
+            if (square >= 0) return square;
+
+            for (int preferred : PREFERRED_SQUARES)
+                if (board[preferred] == ' ') return preferred;
+            throw new IllegalStateException("No empty square left");
+        }
+    }
+
+    //never loses: plays the solved best move from the perfect play table, a lookup rather than a search
+    static class PerfectStrategy implements Strategy {
+        private final PerfectPlayTable table = PerfectPlayTable.shared();
+
+        public String getName()
+        {
+            return "perfect";
+        }
+
+        public int chooseMove(char[] board, char mark)
+        {
+            return table.bestMove(board);
+        }
+    }
+
+    //the empty square that would give mark three in a row, or -1 if there isn't one
+    static int completingSquare(char[] board, char mark)
+    {
+        for (int[] line : LINES) {
+            int marks = 0;
+            int empty = -1;
+            for (int square : line) {
+                if (board[square] == mark) marks++;
+                else if (board[square] == ' ') empty = square;
+            }
+            if (marks == 2 && empty >= 0) return empty;
+        }
+        return -1;
+    }
+
+    static int randomEmptySquare(char[] board)
+    {
+        int empty = 0;
+        for (char square : board)
+            if (square == ' ') empty++;
+        if (empty == 0)
+            throw new IllegalStateException("No empty square left");
+
+        int pick = ThreadLocalRandom.current().nextInt(empty);
+        for (int i = 0; i < board.length; i++)
+            if (board[i] == ' ' && pick-- == 0) return i;
+        return -1; //unreachable, we counted the empty squares above
+    }
+}
@@ -0,0 +1,13 @@
+package Tournament;
+
+//A bot that plays one side of a game.
+//The board is the client's view of the game: 9 squares numbered 0-8 like the server's board, ' ' for an empty square
+//and 'X' or 'O' for a taken one. Strategies are shared by every game in a tournament so they must not keep per-game state.
+public interface Strategy {
+
+    //name shown in the tournament standings
+    String getName();
+
+    //pick an empty square (0-8) for mark to play
+    int chooseMove(char[] board, char mark);
+}
@@ -0,0 +1,280 @@
+package Tournament;
+
+import Ratings.RatingService;
+import Server.GameListener;
+import Server.GameResult;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+//Plays brackets of in-process games between strategies on every core and reports the standings and games/sec.
+//Each game is a real TicTacToeGame reached over LoopbackConnections, so a tournament doubles as a regression test of the game logic.
+public class TournamentRunner {
+
+    private final List<Strategy> strategies;
+    private final List<Standing> standings = new ArrayList<>();
+    private final Set<String> pairingsPlayed = new HashSet<>(); //swiss pairings already used, so rematches are avoided
+    private final ExecutorService matchPool; //one thread per core, each driving games one after another
+    private final ExecutorService runGame; //the server side Player threads, mostly blocked waiting for a line
+    private final LoopbackMatch match;
+    private final RatingService ratings = new RatingService(); //Elo for each strategy, updated by the games as they finish
+    private final List<GameListener> gameListeners = new CopyOnWriteArrayList<>(); //told about every finished game
+    private final int threads;
+    private long gamesPlayed;
+    private long elapsedNanos;
+
+    //the same strategy may be entered more than once, later entries are numbered (random, random#2, ...) because
+    //standings, ratings and swiss pairings all go by name
+    public TournamentRunner(List<Strategy> strategies, int threads)
+    {
+        this.strategies = new ArrayList<>();
+        this.threads = threads;
+        Map<String, Integer> entries = new HashMap<>();
+        for (Strategy strategy : strategies) {
+            int entry = entries.merge(strategy.getName(), 1, Integer::sum);
+            Strategy entrant = entry == 1 ? strategy : new NumberedEntry(strategy, strategy.getName() + "#" + entry);
+            this.strategies.add(entrant);
+            standings.add(new Standing(entrant));
+        }
+
+        matchPool = Executors.newFixedThreadPool(threads);
+        runGame = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "loopback-player");
+            thread.setDaemon(true); //never keep the JVM alive for a game nobody is reading anymore
+            return thread;
+        });
+        gameListeners.add(ratings);
+        match = new LoopbackMatch(runGame, gameListeners);
+    }
+
+    //e.g. a Records.GameRecordWriter to export every tournament game, add listeners before playing
+    public void addGameListener(GameListener listener)
+    {
+        gameListeners.add(listener);
+    }
+
+    // === Brackets ===
+
+    //every strategy plays every other strategy gamesPerPairing times as X and gamesPerPairing times as O
+    public void playRoundRobin(int gamesPerPairing) throws InterruptedException
+    {
+        List<int[]> pairings = new ArrayList<>();
+        for (int x = 0; x < strategies.size(); x++)
+            for (int o = 0; o < strategies.size(); o++)
+                if (x != o) pairings.add(new int[] {x, o});
+
+        playPairings(pairings, gamesPerPairing);
+    }
+
+    //each round pairs strategies with similar scores, a pairing plays gamesPerPairing games each way round
+    public void playSwiss(int rounds, int gamesPerPairing) throws InterruptedException
+    {
+        for (int round = 0; round < rounds; round++) {
+            List<Standing> ranked = new ArrayList<>(standings);
+            Collections.sort(ranked, Comparator.comparingDouble(Standing::getPoints).reversed());
+
+            List<int[]> pairings = new ArrayList<>();
+            while (ranked.size() > 1) {
+                Standing first = ranked.remove(0);
+
+                //pair with the closest ranked opponent not played yet, or the closest one if everyone has been played
+                int opponentIndex = 0;
+                for (int i = 0; i < ranked.size(); i++) {
+                    if (!pairingsPlayed.contains(pairingKey(first, ranked.get(i)))) {
+                        opponentIndex = i;
+                        break;
+                    }
+                }
+                Standing second = ranked.remove(opponentIndex);
+                pairingsPlayed.add(pairingKey(first, second));
+
+                int a = standings.indexOf(first);
+                int b = standings.indexOf(second);
+                pairings.add(new int[] {a, b});
+                pairings.add(new int[] {b, a});
+            }
+            //an odd strategy out sits this round out (a bye)
+
+            playPairings(pairings, gamesPerPairing);
+        }
+    }
+
+    private static String pairingKey(Standing first, Standing second)
+    {
+        String a = first.getName();
+        String b = second.getName();
+        return a.compareTo(b) < 0 ? a + "|" + b : b + "|" + a;
+    }
+
+    // === Running Games ===
+
+    //each pairing is {X index, O index}. Pairings are split into batches so every core stays busy even with few strategies
+    private void playPairings(List<int[]> pairings, int gamesPerPairing) throws InterruptedException
+    {
+        int batchSize = Math.max(1, gamesPerPairing / threads);
+        long started = System.nanoTime();
+
+        List<Future<int[]>> batches = new ArrayList<>();
+        for (int[] pairing : pairings) {
+            for (int start = 0; start < gamesPerPairing; start += batchSize) {
+                int games = Math.min(batchSize, gamesPerPairing - start);
+                batches.add(matchPool.submit(playBatch(pairing, games)));
+            }
+        }
+
+        try {
+            for (int i = 0; i < batches.size(); i++)
+                record(batches.get(i).get());
+        } catch (ExecutionException exception) {
+            throw new IllegalStateException("A tournament game failed", exception.getCause());
+        }
+        elapsedNanos += System.nanoTime() - started;
+    }
+
+    //plays games between one pairing and returns {X index, O index, X wins, O wins, draws}
+    private Callable<int[]> playBatch(final int[] pairing, final int games)
+    {
+        return () -> {
+            Strategy playerX = strategies.get(pairing[0]);
+            Strategy playerO = strategies.get(pairing[1]);
+            int[] tally = {pairing[0], pairing[1], 0, 0, 0};
+
+            for (int i = 0; i < games; i++) {
+                GameResult result = match.play(playerX, playerO);
+                tally[2 + result.ordinal()]++;
+            }
+            return tally;
+        };
+    }
+
+    //results are merged on the calling thread, so standings need no locking
+    private void record(int[] tally)
+    {
+        Standing x = standings.get(tally[0]);
+        Standing o = standings.get(tally[1]);
+
+        x.wins += tally[2];
+        o.losses += tally[2];
+        o.wins += tally[3];
+        x.losses += tally[3];
+        x.draws += tally[4];
+        o.draws += tally[4];
+
+        gamesPlayed += tally[2] + tally[3] + tally[4];
+    }
+
+    public void shutdown()
+    {
+        matchPool.shutdown();
+        runGame.shutdown();
+    }
+
+    // === Report ===
+
+    public List<Standing> getStandings()
+    {
+        List<Standing> ranked = new ArrayList<>(standings);
+        Collections.sort(ranked, Comparator.comparingDouble(Standing::getPoints).reversed());
+        return ranked;
+    }
+
+    public RatingService getRatings()
+    {
+        return ratings;
+    }
+
+    public long getGamesPlayed()
+    {
+        return gamesPlayed;
+    }
+
+    public double getGamesPerSecond()
+    {
+        return elapsedNanos == 0 ? 0 : gamesPlayed * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    public String report()
+    {
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("%-10s %10s %10s %10s %10s %8s%n", "Strategy", "Won", "Drawn", "Lost", "Points", "Elo"));
+        for (Standing standing : getStandings())
+            report.append(String.format("%-10s %10d %10d %10d %10.1f %8.0f%n",
+                    standing.getName(), standing.wins, standing.draws, standing.losses, standing.getPoints(),
+                    ratings.ratingOf(standing.getName())));
+        report.append(String.format("%d games in %.2f s (%.0f games/sec)%n",
+                gamesPlayed, elapsedNanos / 1_000_000_000.0, getGamesPerSecond()));
+        return report.toString();
+    }
+
+    //a strategy entered again under its own name, it plays exactly like the first entry
+    private static class NumberedEntry implements Strategy {
+        private final Strategy strategy;
+        private final String name;
+
+        private NumberedEntry(Strategy strategy, String name)
+        {
+            this.strategy = strategy;
+            this.name = name;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        public int chooseMove(char[] board, char mark)
+        {
+            return strategy.chooseMove(board, mark);
+        }
+    }
+
+    //a strategy's results so far, a win is worth 1 point and a draw half a point
+    public static class Standing {
+        private final Strategy strategy;
+        private long wins;
+        private long draws;
+        private long losses;
+
+        private Standing(Strategy strategy)
+        {
+            this.strategy = strategy;
+        }
+
+        public String getName()
+        {
+            return strategy.getName();
+        }
+
+        public long getWins()
+        {
+            return wins;
+        }
+
+        public long getDraws()
+        {
+            return draws;
+        }
+
+        public long getLosses()
+        {
+            return losses;
+        }
+
+        public double getPoints()
+        {
+            return wins + draws / 2.0;
+        }
+    }
+}
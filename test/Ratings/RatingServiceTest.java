@@ -0,0 +1,53 @@
+package Ratings;
+
+import java.util.List;
+
+//Checks for RatingService that need no files or network. There is no test framework on the classpath, so this runs as a
+//plain program and exits with status 1 on the first failure:
+//  javac -d out $(find src test -name '*.java') && java -cp out Ratings.RatingServiceTest
+public class RatingServiceTest {
+
+    public static void main(String[] args)
+    {
+        drawBetweenEqualRatingsKeepsBothPlayers();
+        winnerRanksAboveLoser();
+        System.out.println("RatingServiceTest passed");
+    }
+
+    //a draw between two players on the same rating leaves both ratings unchanged, both must still be on the leaderboard
+    private static void drawBetweenEqualRatingsKeepsBothPlayers()
+    {
+        RatingService ratings = new RatingService();
+        ratings.recordGame("alice", "bob", 0.5);
+
+        List<RatingEntry> top = ratings.topK(10);
+        check(ratings.size() == 2, "two players rated, size was " + ratings.size());
+        check(top.size() == 2, "both players on the leaderboard after a draw, got " + top);
+        check(top.get(0).getGames() == 1 && top.get(1).getGames() == 1, "one game each, got " + top);
+        check(ratings.ratingOf("alice") == ratings.ratingOf("bob"), "equal ratings after a draw");
+
+        ratings.recordGame("bob", "alice", 0.5);
+        top = ratings.topK(10);
+        check(top.size() == 2, "both players on the leaderboard after a second draw, got " + top);
+    }
+
+    private static void winnerRanksAboveLoser()
+    {
+        RatingService ratings = new RatingService();
+        ratings.recordGame("carol", "dave", 1);
+
+        List<RatingEntry> top = ratings.topK(10);
+        check(top.size() == 2, "both players on the leaderboard, got " + top);
+        check(top.get(0).getName().equals("carol"), "winner first, got " + top);
+        check(ratings.rankOf("carol") == 1 && ratings.rankOf("dave") == 2,
+                "ranks 1 and 2, got " + ratings.rankOf("carol") + " and " + ratings.rankOf("dave"));
+    }
+
+    private static void check(boolean condition, String message)
+    {
+        if (!condition) {
+            System.err.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
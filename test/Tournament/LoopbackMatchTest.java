@@ -0,0 +1,80 @@
+package Tournament;
+
+import Server.GameListener;
+import Server.GameResult;
+
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//Plays real TicTacToeGames over LoopbackConnections between every pair of built in strategies, both ways round, and fails
+//on any exception (a protocol mismatch, a lost message, a rejected move) or a result that can't be right.
+//Runs as a plain program and exits with status 1 on the first failure:
+//  javac -d out $(find src test -name '*.java') && java -cp out Tournament.LoopbackMatchTest
+public class LoopbackMatchTest {
+
+    private static final String[] STRATEGIES = {"random", "first", "greedy", "perfect"};
+    private static final int GAMES_PER_PAIRING = 1000; //4 x 4 pairings, 16000 games, enough to hit a rare race now and then
+
+    public static void main(String[] args) throws Exception
+    {
+        ThreadPoolExecutor runGame = (ThreadPoolExecutor) Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "loopback-player");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger reported = new AtomicInteger();
+        GameListener counter = (game, result) -> reported.incrementAndGet();
+        LoopbackMatch match = new LoopbackMatch(runGame, Collections.singletonList(counter));
+
+        int played = 0;
+        for (String x : STRATEGIES) {
+            for (String o : STRATEGIES) {
+                Strategy playerX = Strategies.byName(x);
+                Strategy playerO = Strategies.byName(o);
+                for (int i = 0; i < GAMES_PER_PAIRING; i++) {
+                    GameResult result;
+                    try
+                    {
+                        result = match.play(playerX, playerO);
+                    }
+                    catch (Exception exception)
+                    {
+                        exception.printStackTrace();
+                        fail(x + " vs " + o + " game " + i + " failed: " + exception);
+                        return;
+                    }
+                    played++;
+                    check(!(x.equals("perfect") && result == GameResult.O_WON), "perfect lost as X to " + o);
+                    check(!(o.equals("perfect") && result == GameResult.X_WON), "perfect lost as O to " + x);
+                    check(!(x.equals("perfect") && o.equals("perfect")) || result == GameResult.DRAW,
+                            "perfect against itself must draw, got " + result);
+                }
+            }
+        }
+        check(reported.get() == played, "every game reported once, " + reported.get() + " reports for " + played + " games");
+
+        //a finished game closes its connections, so no Player thread is left waiting for a line
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runGame.getActiveCount() > 0 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        check(runGame.getActiveCount() == 0, runGame.getActiveCount() + " player threads still running after every game ended");
+        runGame.shutdown();
+
+        System.out.println("LoopbackMatchTest passed, " + played + " games");
+    }
+
+    private static void check(boolean condition, String message)
+    {
+        if (!condition)
+            fail(message);
+    }
+
+    private static void fail(String message)
+    {
+        System.err.println("FAILED: " + message);
+        System.exit(1);
+    }
+}